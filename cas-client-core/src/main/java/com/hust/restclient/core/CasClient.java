@@ -0,0 +1,810 @@
+package com.hust.restclient.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hust.restclient.dto.CasAuthenResult;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.dto.CasUserDetail;
+import com.hust.restclient.dto.TgtStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CAS REST protocol client (TGT, ST, serviceValidate, v1/users, proxy tickets) on the JDK HttpClient.
+ * One instance keeps one connection pool; share it. Failures are reported as null / failure results,
+ * the way the protocol steps are chained; only exceptions from the interceptor propagate.
+ * The *Async methods never block a thread while CAS responds, for use from event-loop servers.
+ */
+@Slf4j
+public class CasClient implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /** Runs the TGT request next to v1/users and proxy ticket requests; callers wait on them, so virtual threads are enough */
+    private static final ExecutorService PARALLEL_LEG_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    /** Runs asynchronous continuations on the thread that completed the previous step */
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    /** Turns a CAS response into the result of one step */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(HttpResponse<String> response) throws IOException, InterruptedException;
+    }
+
+    private final CasClientConfig config;
+    private final CasExchangeInterceptor interceptor;
+    private final HttpClient httpClient;
+    /** Cleared the first time the CAS server answers v1/users with 404/405/501 */
+    private volatile boolean usersEndpointAvailable = true;
+
+    public CasClient(CasClientConfig config) {
+        this(config, CasExchangeInterceptor.NONE);
+    }
+
+    public CasClient(CasClientConfig config, CasExchangeInterceptor interceptor) {
+        this.config = config;
+        this.interceptor = interceptor;
+        // HttpClient keeps idle HTTP/1.1 connections per host for reuse
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(config.getConnectTimeout());
+        if (config.getSslContext() != null) {
+            builder.sslContext(config.getSslContext());
+        }
+        this.httpClient = builder.build();
+    }
+
+    public CasClientConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Step 1: Request TGT (Ticket Granting Ticket)
+     */
+    public String requestTgt(String username, String password) {
+        return exchange(CasLeg.TGT, tgtRequest(username, password), this::tgtFrom, () -> null, "requesting TGT");
+    }
+
+    public CompletableFuture<String> requestTgtAsync(String username, String password) {
+        return exchangeAsync(CasLeg.TGT, tgtRequest(username, password), this::tgtFrom, () -> null, "requesting TGT");
+    }
+
+    /**
+     * Step 2: Request ST (Service Ticket) using TGT
+     */
+    public String requestServiceTicket(String tgt, String service, String username, String password) {
+        return exchange(CasLeg.ST, serviceTicketRequest(tgt, service, username, password), this::serviceTicketFrom,
+            () -> null, "requesting service ticket");
+    }
+
+    public CompletableFuture<String> requestServiceTicketAsync(String tgt, String service, String username,
+                                                               String password) {
+        return exchangeAsync(CasLeg.ST, serviceTicketRequest(tgt, service, username, password),
+            this::serviceTicketFrom, () -> null, "requesting service ticket");
+    }
+
+    /**
+     * Step 3: Validate Service Ticket.
+     * With a proxy callback URL this goes to proxyValidate with pgtUrl, and a successful result also carries
+     * the PGT CAS delivered to the callback (null if it did not arrive).
+     */
+    public CasUserDetail validateServiceTicket(String serviceTicket, String service) {
+        return exchange(CasLeg.VALIDATE, validateRequest(serviceTicket, service), this::userDetailFromXml,
+            CasUserDetail::failure, "validating service ticket");
+    }
+
+    public CompletableFuture<CasUserDetail> validateServiceTicketAsync(String serviceTicket, String service) {
+        return exchangeAsync(CasLeg.VALIDATE, validateRequest(serviceTicket, service), this::userDetailFromXml,
+            CasUserDetail::failure, "validating service ticket");
+    }
+
+    /**
+     * Mint a proxy ticket for {@code targetService} from a PGT (GET proxy).
+     */
+    public CasProxyTicketResult requestProxyTicket(String pgt, String targetService) {
+        if (pgt == null) {
+            return CasProxyTicketResult.pgtExpired("No proxy-granting ticket");
+        }
+        return exchange(CasLeg.PROXY, proxyRequest(pgt, targetService), this::proxyTicketFrom,
+            () -> CasProxyTicketResult.failure("Error requesting proxy ticket"), "requesting proxy ticket");
+    }
+
+    public CompletableFuture<CasProxyTicketResult> requestProxyTicketAsync(String pgt, String targetService) {
+        if (pgt == null) {
+            return CompletableFuture.completedFuture(CasProxyTicketResult.pgtExpired("No proxy-granting ticket"));
+        }
+        return exchangeAsync(CasLeg.PROXY, proxyRequest(pgt, targetService), this::proxyTicketFrom,
+            () -> CasProxyTicketResult.failure("Error requesting proxy ticket"), "requesting proxy ticket");
+    }
+
+    /**
+     * Mint proxy tickets for several target services at once: the requests run concurrently,
+     * so the total wait is about one CAS round trip rather than one per target.
+     * @return one result per distinct target, in the given order
+     */
+    public Map<String, CasProxyTicketResult> requestProxyTickets(String pgt, Collection<String> targetServices) {
+        List<String> targets = targetServices.stream().distinct().toList();
+        List<CompletableFuture<CasProxyTicketResult>> futures = new ArrayList<>(targets.size());
+        for (String target : targets.subList(Math.min(1, targets.size()), targets.size())) {
+            futures.add(CompletableFuture.supplyAsync(
+                interceptor.propagate(() -> requestProxyTicket(pgt, target)), PARALLEL_LEG_EXECUTOR));
+        }
+
+        Map<String, CasProxyTicketResult> results = new LinkedHashMap<>();
+        try {
+            // The calling thread takes the first target instead of idling
+            if (!targets.isEmpty()) {
+                results.put(targets.get(0), requestProxyTicket(pgt, targets.get(0)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                results.put(targets.get(i + 1), join(futures.get(i)));
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        }
+        return results;
+    }
+
+    public CompletableFuture<Map<String, CasProxyTicketResult>> requestProxyTicketsAsync(
+            String pgt, Collection<String> targetServices) {
+        List<String> targets = targetServices.stream().distinct().toList();
+        List<CompletableFuture<CasProxyTicketResult>> futures = new ArrayList<>(targets.size());
+        for (String target : targets) {
+            futures.add(requestProxyTicketAsync(pgt, target));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<String, CasProxyTicketResult> results = new LinkedHashMap<>();
+            for (int i = 0; i < targets.size(); i++) {
+                results.put(targets.get(i), futures.get(i).join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Authenticate with POST v1/users, which returns the principal and its attributes in one round trip.
+     * @return the user details, a failure if CAS rejected the credentials, or null if the endpoint is not available
+     *         or failed with a server error
+     */
+    public CasUserDetail requestUserDetails(String username, String password) {
+        return exchange(CasLeg.USERS, userDetailsRequest(username, password), this::userDetailFromJson,
+            CasUserDetail::failure, "requesting user details");
+    }
+
+    public CompletableFuture<CasUserDetail> requestUserDetailsAsync(String username, String password) {
+        return exchangeAsync(CasLeg.USERS, userDetailsRequest(username, password), this::userDetailFromJson,
+            CasUserDetail::failure, "requesting user details");
+    }
+
+    /**
+     * Check whether a TGT is still alive on the CAS server (GET v1/tickets/{tgt}).
+     * Unlike requestServiceTicket this does not mint a ticket, so it is cheap enough for background checks.
+     */
+    public TgtStatus checkTgt(String tgt) {
+        try {
+            HttpResponse<String> response = send(CasLeg.CHECK_TGT, get(endpoint("v1/tickets/" + encode(tgt))));
+            if (is2xx(response)) {
+                return TgtStatus.VALID;
+            }
+            if (response.statusCode() == 404) {
+                log.debug("TGT no longer exists on CAS server");
+                return TgtStatus.INVALID;
+            }
+            log.warn("Unexpected TGT check status: {}", response.statusCode());
+            return TgtStatus.UNKNOWN;
+
+        } catch (IOException e) {
+            log.warn("Error checking TGT: {}", e.toString());
+            return TgtStatus.UNKNOWN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TgtStatus.UNKNOWN;
+        }
+    }
+
+    /**
+     * Log a TGT out of the CAS server (DELETE v1/tickets/{tgt}), e.g. one minted for a login nobody waited for.
+     * @return true if CAS destroyed it, false if it was already gone or the call failed
+     */
+    public boolean destroyTgt(String tgt) {
+        return exchange(CasLeg.DESTROY_TGT, delete(endpoint("v1/tickets/" + encode(tgt))), this::destroyedFrom,
+            () -> false, "destroying TGT");
+    }
+
+    public CompletableFuture<Boolean> destroyTgtAsync(String tgt) {
+        return exchangeAsync(CasLeg.DESTROY_TGT, delete(endpoint("v1/tickets/" + encode(tgt))), this::destroyedFrom,
+            () -> false, "destroying TGT");
+    }
+
+    /**
+     * Complete CAS login flow, as configured by {@link CasClientConfig#getLoginStrategy()}
+     */
+    public CasLoginResult performCasLogin(String username, String password) {
+        if (config.getLoginStrategy() == CasLoginStrategy.USERS_ENDPOINT && usersEndpointAvailable) {
+            return performUsersEndpointLogin(username, password);
+        }
+        return performThreeLegLogin(username, password, requestTgt(username, password));
+    }
+
+    /**
+     * Non-blocking variant of {@link #performCasLogin}: no thread waits while CAS responds.
+     */
+    public CompletableFuture<CasLoginResult> performCasLoginAsync(String username, String password) {
+        Executor context = interceptor.propagate(DIRECT_EXECUTOR);
+        if (config.getLoginStrategy() == CasLoginStrategy.USERS_ENDPOINT && usersEndpointAvailable) {
+            CompletableFuture<String> tgtFuture = requestTgtAsync(username, password);
+            CompletableFuture<String> serviceTicketFuture = tgtFuture.thenComposeAsync(tgt -> tgt == null
+                ? CompletableFuture.completedFuture(null)
+                : requestServiceTicketAsync(tgt, config.getClientServiceUrl(), null, null), context);
+            return requestUserDetailsAsync(username, password).whenComplete((userDetail, error) -> {
+                if (error != null) {
+                    tgtFuture.thenAccept(this::destroyAbandonedTgt);
+                }
+            }).thenComposeAsync(userDetail ->
+                serviceTicketFuture.thenComposeAsync(serviceTicket -> {
+                    // Complete: the service ticket was requested with it
+                    String tgt = tgtFuture.join();
+                    return userDetail == null
+                        ? validateLoginAsync(tgt, serviceTicket)
+                        : CompletableFuture.completedFuture(usersEndpointLoginResult(userDetail, tgt, serviceTicket));
+                }, context), context);
+        }
+        return requestTgtAsync(username, password).thenComposeAsync(
+            tgt -> performThreeLegLoginAsync(username, password, tgt, context), context);
+    }
+
+    /**
+     * Complete CAS authen flows
+     */
+    public CasAuthenResult performAuthen(String tgt) {
+        if (tgt == null) {
+            return CasAuthenResult.failure("Failed to obtain TGT");
+        }
+        // Step 1: Request ST
+        String serviceTicket = requestServiceTicket(tgt, config.getClientServiceUrl(), null, null);
+        if (serviceTicket == null) {
+            return CasAuthenResult.failure("Failed to obtain service ticket");
+        }
+        // Step 2: Validate ST and get user details
+        CasUserDetail userDetail = validateServiceTicket(serviceTicket, config.getClientServiceUrl());
+        if (!userDetail.isSuccess()) {
+            return CasAuthenResult.failure("Service ticket validation failed");
+        }
+        return CasAuthenResult.success(serviceTicket);
+    }
+
+    /**
+     * Generate CASTGC cookie value (this would typically be set by the browser)
+     */
+    public static String castgcCookie(String tgt) {
+        return "CASTGC=" + tgt + "; Path=/; Secure; HttpOnly";
+    }
+
+    /**
+     * @return the TGT of a cookie built by {@link #castgcCookie}, or null
+     */
+    public static String tgtOf(String castgcCookie) {
+        if (castgcCookie == null || !castgcCookie.startsWith("CASTGC=")) {
+            return null;
+        }
+        int end = castgcCookie.indexOf(';');
+        return castgcCookie.substring("CASTGC=".length(), end > 0 ? end : castgcCookie.length());
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    /**
+     * v1/users for the user details, with the TGT (still needed for the CASTGC cookie) and then an ST on it
+     * requested in parallel. The ST is not validated: it is the SessionIndex CAS single logout will name.
+     * This costs about two round trips (TGT then ST, v1/users alongside) and sends the credentials twice.
+     */
+    private CasLoginResult performUsersEndpointLogin(String username, String password) {
+        CompletableFuture<String> tgtFuture = CompletableFuture.supplyAsync(
+            interceptor.propagate(() -> requestTgt(username, password)), PARALLEL_LEG_EXECUTOR);
+        CompletableFuture<String> serviceTicketFuture = tgtFuture.thenApplyAsync(tgt -> tgt == null
+            ? null
+            : requestServiceTicket(tgt, config.getClientServiceUrl(), null, null),
+            interceptor.propagate(PARALLEL_LEG_EXECUTOR));
+
+        CasUserDetail userDetail;
+        try {
+            userDetail = requestUserDetails(username, password);
+        } catch (RuntimeException e) {
+            // The TGT leg may already be running: log it out again once it is there
+            tgtFuture.thenAccept(this::destroyAbandonedTgt);
+            serviceTicketFuture.cancel(false);
+            throw e;
+        }
+        String tgt = join(tgtFuture);
+        String serviceTicket = join(serviceTicketFuture);
+
+        if (userDetail == null) {
+            // Endpoint not available: finish with serviceValidate on the ST we already have
+            return validateLogin(tgt, serviceTicket);
+        }
+        return usersEndpointLoginResult(userDetail, tgt, serviceTicket);
+    }
+
+    private CasLoginResult usersEndpointLoginResult(CasUserDetail userDetail, String tgt, String serviceTicket) {
+        if (!userDetail.isSuccess()) {
+            destroyAbandonedTgt(tgt);
+            return CasLoginResult.failure("Authentication failed");
+        }
+        if (tgt == null) {
+            return CasLoginResult.failure("Failed to obtain TGT");
+        }
+        if (serviceTicket == null) {
+            destroyAbandonedTgt(tgt);
+            return CasLoginResult.failure("Failed to obtain service ticket");
+        }
+        return CasLoginResult.success(serviceTicket, castgcCookie(tgt), userDetail);
+    }
+
+    /**
+     * Log out a TGT the parallel leg obtained for a login that failed, rather than leave it live on CAS.
+     */
+    private void destroyAbandonedTgt(String tgt) {
+        if (tgt == null) {
+            return;
+        }
+        destroyTgtAsync(tgt).exceptionally(e -> {
+            log.warn("Could not destroy the TGT of a failed login: {}", e.toString());
+            return false;
+        });
+    }
+
+    private CasLoginResult performThreeLegLogin(String username, String password, String tgt) {
+        // Step 1: Request TGT (done by the caller)
+        if (tgt == null) {
+            return CasLoginResult.failure("Failed to obtain TGT");
+        }
+
+        // Step 2: Request ST
+        String serviceTicket = requestServiceTicket(tgt, config.getClientServiceUrl(), username, password);
+
+        // Step 3: Validate ST and get user details
+        return validateLogin(tgt, serviceTicket);
+    }
+
+    private CasLoginResult validateLogin(String tgt, String serviceTicket) {
+        if (tgt == null) {
+            return CasLoginResult.failure("Failed to obtain TGT");
+        }
+        if (serviceTicket == null) {
+            return CasLoginResult.failure("Failed to obtain service ticket");
+        }
+        CasUserDetail userDetail = validateServiceTicket(serviceTicket, config.getClientServiceUrl());
+        return threeLegLoginResult(serviceTicket, tgt, userDetail);
+    }
+
+    private CompletableFuture<CasLoginResult> performThreeLegLoginAsync(String username, String password, String tgt,
+                                                                       Executor context) {
+        if (tgt == null) {
+            return CompletableFuture.completedFuture(CasLoginResult.failure("Failed to obtain TGT"));
+        }
+        return requestServiceTicketAsync(tgt, config.getClientServiceUrl(), username, password)
+            .thenComposeAsync(serviceTicket -> validateLoginAsync(tgt, serviceTicket), context);
+    }
+
+    private CompletableFuture<CasLoginResult> validateLoginAsync(String tgt, String serviceTicket) {
+        if (tgt == null) {
+            return CompletableFuture.completedFuture(CasLoginResult.failure("Failed to obtain TGT"));
+        }
+        if (serviceTicket == null) {
+            return CompletableFuture.completedFuture(CasLoginResult.failure("Failed to obtain service ticket"));
+        }
+        return validateServiceTicketAsync(serviceTicket, config.getClientServiceUrl())
+            .thenApply(userDetail -> threeLegLoginResult(serviceTicket, tgt, userDetail));
+    }
+
+    private static CasLoginResult threeLegLoginResult(String serviceTicket, String tgt, CasUserDetail userDetail) {
+        if (!userDetail.isSuccess()) {
+            return CasLoginResult.failure("Service ticket validation failed");
+        }
+        return CasLoginResult.success(serviceTicket, castgcCookie(tgt), userDetail);
+    }
+
+    private HttpRequest tgtRequest(String username, String password) {
+        URI tgtUri = endpoint("v1/tickets");
+        log.info("Requesting TGT from URL: {}", tgtUri);
+        // For REST protocol, we don't include service URL in TGT request
+        // This avoids the SSO denial issue
+        return formPost(tgtUri, form("username", username, "password", password));
+    }
+
+    private String tgtFrom(HttpResponse<String> response) {
+        log.info("TGT response status: {}", response.statusCode());
+
+        if (is2xx(response)) {
+            // Extract TGT from Location header
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (location != null && location.contains("TGT-")) {
+                String tgt = location.substring(location.lastIndexOf("/") + 1);
+                log.info("TGT obtained successfully: {}", tgt);
+                return tgt;
+            }
+            log.error("TGT not found in Location header: {}", location);
+            return null;
+        }
+
+        log.error("Failed to obtain TGT. Status: {}", response.statusCode());
+        return null;
+    }
+
+    private boolean destroyedFrom(HttpResponse<String> response) {
+        if (is2xx(response)) {
+            return true;
+        }
+        log.debug("TGT not destroyed, status: {}", response.statusCode());
+        return false;
+    }
+
+    private HttpRequest serviceTicketRequest(String tgt, String service, String username, String password) {
+        URI stUri = endpoint("v1/tickets/" + encode(tgt));
+        log.info("Requesting Service Ticket from URL: {}", stUri);
+
+        String body = username != null && !username.trim().isEmpty() && password != null && !password.trim().isEmpty()
+            ? form("username", username, "password", password, "service", service)
+            : form("service", service);
+        return formPost(stUri, body);
+    }
+
+    private String serviceTicketFrom(HttpResponse<String> response) {
+        log.info("ST response status: {}", response.statusCode());
+
+        if (is2xx(response)) {
+            String serviceTicket = response.body();
+            log.info("Service ticket obtained successfully: {}", serviceTicket);
+            return serviceTicket;
+        }
+
+        log.error("Failed to obtain service ticket. Status: {}", response.statusCode());
+        return null;
+    }
+
+    private HttpRequest validateRequest(String serviceTicket, String service) {
+        String query = "?ticket=" + encode(serviceTicket) + "&service=" + encode(service);
+        URI validateUri = config.isProxyEnabled()
+            ? endpoint("proxyValidate" + query + "&pgtUrl=" + encode(config.getProxyCallbackUrl()))
+            : endpoint("serviceValidate" + query);
+        log.info("Validating Service Ticket at URL: {}", validateUri);
+        return get(validateUri);
+    }
+
+    private CasUserDetail userDetailFromXml(HttpResponse<String> response) throws IOException, InterruptedException {
+        if (is2xx(response)) {
+            String responseBody = response.body();
+            log.debug("Validation response: {}", responseBody);
+
+            if (responseBody != null && responseBody.contains("<cas:authenticationSuccess>")) {
+                return interceptor.intercept(CasLeg.PARSE, () -> parseUserDetailFromXml(responseBody));
+            }
+            log.warn("Authentication failed in CAS response");
+            return CasUserDetail.failure();
+        }
+
+        log.error("Failed to validate service ticket. Status: {}", response.statusCode());
+        return CasUserDetail.failure();
+    }
+
+    private HttpRequest proxyRequest(String pgt, String targetService) {
+        log.info("Requesting proxy ticket for {}", targetService);
+        return get(endpoint("proxy?pgt=" + encode(pgt) + "&targetService=" + encode(targetService)));
+    }
+
+    private CasProxyTicketResult proxyTicketFrom(HttpResponse<String> response)
+            throws IOException, InterruptedException {
+        if (is2xx(response) && response.body() != null) {
+            return interceptor.intercept(CasLeg.PARSE, () -> parseProxyTicketFromXml(response.body()));
+        }
+
+        log.error("Failed to obtain proxy ticket. Status: {}", response.statusCode());
+        return CasProxyTicketResult.failure("CAS returned " + response.statusCode());
+    }
+
+    private HttpRequest userDetailsRequest(String username, String password) {
+        URI usersUri = endpoint("v1/users");
+        log.info("Requesting user details from URL: {}", usersUri);
+
+        return HttpRequest.newBuilder(usersUri)
+            .timeout(config.getReadTimeout())
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(form("username", username, "password", password)))
+            .build();
+    }
+
+    private CasUserDetail userDetailFromJson(HttpResponse<String> response) throws IOException, InterruptedException {
+        int status = response.statusCode();
+
+        if (is2xx(response) && response.body() != null) {
+            return interceptor.intercept(CasLeg.PARSE, () -> parseUserDetailFromJson(response.body()));
+        }
+        if (status == 404 || status == 405 || status == 501) {
+            log.warn("CAS server has no v1/users endpoint ({}), using the three-step login from now on", status);
+            usersEndpointAvailable = false;
+            return null;
+        }
+        if (status >= 500) {
+            // Possibly transient: finish this login with serviceValidate, try v1/users again next time
+            log.warn("v1/users failed with {}, validating the service ticket instead", status);
+            return null;
+        }
+        if (status >= 400) {
+            log.warn("CAS rejected the credentials: {}", status);
+        } else {
+            log.error("Failed to obtain user details. Status: {}", status);
+        }
+        return CasUserDetail.failure();
+    }
+
+    private CasUserDetail parseUserDetailFromXml(String xmlResponse) {
+        try {
+            Document doc = parseXml(xmlResponse);
+
+            // Extract username
+            NodeList userNodes = doc.getElementsByTagName("cas:user");
+            String username = null;
+            if (userNodes.getLength() > 0) {
+                username = userNodes.item(0).getTextContent().trim();
+            } else {
+                log.warn("No cas:user element found in XML");
+            }
+
+            // Extract role from groupMembership
+            String role = null;
+            NodeList attributeNodes = doc.getElementsByTagName("cas:attributes");
+            if (attributeNodes.getLength() > 0) {
+                Element attributesElement = (Element) attributeNodes.item(0);
+                NodeList groupNodes = attributesElement.getElementsByTagName("cas:groupMembership");
+                if (groupNodes.getLength() > 0) {
+                    role = groupNodes.item(0).getTextContent().trim();
+                } else {
+                    log.warn("No cas:groupMembership element found in cas:attributes");
+                }
+            } else {
+                log.warn("No cas:attributes element found in XML - user may not have role information");
+            }
+
+            if (username != null) {
+                log.info("Extracted user details: username={}, role={}", username, role);
+                CasUserDetail userDetail = CasUserDetail.success(username, role);
+                if (config.isProxyEnabled()) {
+                    userDetail.setProxyGrantingTicket(claimProxyGrantingTicket(doc));
+                }
+                return userDetail;
+            }
+            log.warn("No username found in CAS response");
+            return CasUserDetail.failure();
+
+        } catch (Exception e) {
+            log.error("Error parsing XML response", e);
+            return CasUserDetail.failure();
+        }
+    }
+
+    /**
+     * The validation response names the PGT only by its IOU; the PGT itself came in on the callback.
+     */
+    private String claimProxyGrantingTicket(Document doc) {
+        NodeList iouNodes = doc.getElementsByTagName("cas:proxyGrantingTicket");
+        if (iouNodes.getLength() == 0) {
+            log.warn("No cas:proxyGrantingTicket in CAS response - is this service allowed to proxy?");
+            return null;
+        }
+        String pgt = config.getProxyGrantingTicketStorage().retrieve(iouNodes.item(0).getTextContent().trim());
+        if (pgt == null) {
+            log.warn("CAS did not deliver the PGT to the proxy callback URL {}", config.getProxyCallbackUrl());
+        }
+        return pgt;
+    }
+
+    /**
+     * Parse a proxy response: cas:proxySuccess/cas:proxyTicket, or cas:proxyFailure with a code.
+     * INVALID_TICKET means the PGT is gone (expired or its TGT was destroyed).
+     */
+    private CasProxyTicketResult parseProxyTicketFromXml(String xmlResponse) {
+        try {
+            Document doc = parseXml(xmlResponse);
+            NodeList ticketNodes = doc.getElementsByTagName("cas:proxyTicket");
+            if (ticketNodes.getLength() > 0) {
+                return CasProxyTicketResult.success(ticketNodes.item(0).getTextContent().trim());
+            }
+
+            NodeList failureNodes = doc.getElementsByTagName("cas:proxyFailure");
+            if (failureNodes.getLength() > 0) {
+                Element failure = (Element) failureNodes.item(0);
+                String code = failure.getAttribute("code");
+                log.warn("CAS refused the proxy ticket: {} {}", code, failure.getTextContent().trim());
+                return "INVALID_TICKET".equals(code)
+                    ? CasProxyTicketResult.pgtExpired("Proxy-granting ticket expired")
+                    : CasProxyTicketResult.failure("CAS refused the proxy ticket: " + code);
+            }
+
+            log.warn("Unrecognized proxy response");
+            return CasProxyTicketResult.failure("Unrecognized proxy response");
+
+        } catch (Exception e) {
+            log.error("Error parsing XML response", e);
+            return CasProxyTicketResult.failure("Unreadable proxy response");
+        }
+    }
+
+    private static Document parseXml(String xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        // CAS responses never carry a DTD; refusing one rules out XXE
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        return builder.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Parse the v1/users response: {"authentication": {"principal": {"id": ..., "attributes": {...}}}}.
+     * CAS renders attribute values as arrays, so the first groupMembership value is the role.
+     */
+    private CasUserDetail parseUserDetailFromJson(String jsonResponse) {
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(jsonResponse);
+            JsonNode authentication = root.has("authentication") ? root.get("authentication") : root;
+            JsonNode principal = authentication.path("principal");
+
+            String username = principal.path("id").asText(null);
+            if (username == null || username.isBlank()) {
+                log.warn("No principal id found in CAS response");
+                return CasUserDetail.failure();
+            }
+
+            JsonNode groups = principal.path("attributes").path("groupMembership");
+            if (groups.isMissingNode()) {
+                groups = authentication.path("attributes").path("groupMembership");
+            }
+            JsonNode group = groups.isArray() ? groups.path(0) : groups;
+            String role = group.isValueNode() ? group.asText() : null;
+
+            log.info("Extracted user details: username={}, role={}", username, role);
+            return CasUserDetail.success(username, role);
+
+        } catch (Exception e) {
+            log.error("Error parsing JSON response", e);
+            return CasUserDetail.failure();
+        }
+    }
+
+    /**
+     * One blocking step: send through the interceptor and turn the response into a result.
+     * I/O failures are logged and become {@code onError}.
+     */
+    private <T> T exchange(CasLeg leg, HttpRequest request, ResponseHandler<T> handler, Supplier<T> onError,
+                           String action) {
+        try {
+            return handler.handle(send(leg, request));
+        } catch (IOException e) {
+            log.error("Error {}: {}", action, e.toString());
+            return onError.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return onError.get();
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #exchange}. Other failures, e.g. a refusal by the interceptor,
+     * complete the future exceptionally.
+     */
+    private <T> CompletableFuture<T> exchangeAsync(CasLeg leg, HttpRequest request, ResponseHandler<T> handler,
+                                                   Supplier<T> onError, String action) {
+        Executor context = interceptor.propagate(DIRECT_EXECUTOR);
+        CompletableFuture<HttpResponse<String>> pending;
+        try {
+            pending = interceptor.interceptAsync(leg,
+                () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return pending
+            .thenApplyAsync(response -> {
+                try {
+                    return handler.handle(response);
+                } catch (IOException | InterruptedException e) {
+                    throw new CompletionException(e);
+                }
+            }, context)
+            .exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof IOException) {
+                    log.error("Error {}: {}", action, cause.toString());
+                    return onError.get();
+                }
+                throw e instanceof CompletionException completion ? completion : new CompletionException(cause);
+            });
+    }
+
+    private HttpResponse<String> send(CasLeg leg, HttpRequest request) throws IOException, InterruptedException {
+        return interceptor.intercept(leg, () -> httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private URI endpoint(String path) {
+        return URI.create(config.getServerUrl() + path);
+    }
+
+    private HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(config.getReadTimeout()).GET().build();
+    }
+
+    private HttpRequest delete(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(config.getReadTimeout()).DELETE().build();
+    }
+
+    private HttpRequest formPost(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(config.getReadTimeout())
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static String form(String... namesAndValues) {
+        StringBuilder form = new StringBuilder();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (form.length() > 0) {
+                form.append('&');
+            }
+            form.append(encode(namesAndValues[i])).append('=').append(encode(namesAndValues[i + 1]));
+        }
+        return form.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+
+    private static boolean is2xx(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    /**
+     * Wait for a parallel leg, rethrowing its unchecked failure (e.g. a full bulkhead) as is.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
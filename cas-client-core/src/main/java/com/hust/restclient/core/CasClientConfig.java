@@ -0,0 +1,65 @@
+package com.hust.restclient.core;
+
+import java.time.Duration;
+
+import javax.net.ssl.SSLContext;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable settings of a {@link CasClient}. Only the two URLs are required:
+ * <pre>
+ * CasClientConfig config = CasClientConfig.builder()
+ *     .serverUrl("https://cas.example.edu/cas")
+ *     .clientServiceUrl("https://app.example.edu")
+ *     .build();
+ * </pre>
+ */
+@Getter
+public final class CasClientConfig {
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(5);
+
+    /** CAS base URL, always ending with "/" */
+    private final String serverUrl;
+    private final String clientServiceUrl;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    /** null uses the JDK default trust store */
+    private final SSLContext sslContext;
+    private final CasLoginStrategy loginStrategy;
+    /** pgtUrl sent with every validation; null disables proxy tickets */
+    private final String proxyCallbackUrl;
+    /** Where the callback endpoint puts the PGTs CAS delivers; required with a proxy callback URL */
+    private final ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+
+    @Builder
+    private CasClientConfig(String serverUrl, String clientServiceUrl, Duration connectTimeout, Duration readTimeout,
+                            SSLContext sslContext, CasLoginStrategy loginStrategy, String proxyCallbackUrl,
+                            ProxyGrantingTicketStorage proxyGrantingTicketStorage) {
+        if (serverUrl == null || serverUrl.trim().isEmpty()) {
+            throw new IllegalStateException("CAS server URL is not configured");
+        }
+        if (clientServiceUrl == null || clientServiceUrl.trim().isEmpty()) {
+            throw new IllegalStateException("CAS client service URL is not configured");
+        }
+        boolean proxyEnabled = proxyCallbackUrl != null && !proxyCallbackUrl.trim().isEmpty();
+        if (proxyEnabled && proxyGrantingTicketStorage == null) {
+            throw new IllegalStateException("CAS proxy callback URL is configured without a PGT storage");
+        }
+        this.serverUrl = serverUrl.endsWith("/") ? serverUrl : serverUrl + "/";
+        this.clientServiceUrl = clientServiceUrl;
+        this.connectTimeout = connectTimeout != null ? connectTimeout : DEFAULT_CONNECT_TIMEOUT;
+        this.readTimeout = readTimeout != null ? readTimeout : DEFAULT_READ_TIMEOUT;
+        this.sslContext = sslContext;
+        this.loginStrategy = loginStrategy != null ? loginStrategy : CasLoginStrategy.THREE_LEG;
+        this.proxyCallbackUrl = proxyEnabled ? proxyCallbackUrl : null;
+        this.proxyGrantingTicketStorage = proxyEnabled ? proxyGrantingTicketStorage : null;
+    }
+
+    public boolean isProxyEnabled() {
+        return proxyCallbackUrl != null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hust.restclient.core;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Hook around every step of a {@link CasClient}, e.g. to limit concurrency or record timings.
+ * Runtime exceptions thrown here propagate to the caller of the client unchanged.
+ */
+public interface CasExchangeInterceptor {
+
+    CasExchangeInterceptor NONE = new CasExchangeInterceptor() {
+    };
+
+    /** One HTTP exchange (returning the {@code HttpResponse}) or one parse step */
+    @FunctionalInterface
+    interface CasExchange<T> {
+        T execute() throws IOException, InterruptedException;
+    }
+
+    default <T> T intercept(CasLeg leg, CasExchange<T> exchange) throws IOException, InterruptedException {
+        return exchange.execute();
+    }
+
+    /**
+     * Asynchronous variant: {@code exchange} starts the HTTP exchange and returns its pending {@code HttpResponse}.
+     * Must not block; a refusal is reported by throwing or by a failed future.
+     */
+    default <T> CompletableFuture<T> interceptAsync(CasLeg leg, Supplier<CompletableFuture<T>> exchange) {
+        return exchange.get();
+    }
+
+    /**
+     * Wrap work the client is about to hand to another thread, so thread-bound context follows it.
+     */
+    default <T> Supplier<T> propagate(Supplier<T> task) {
+        return task;
+    }
+
+    /**
+     * Executor for the continuations of an asynchronous flow: runs tasks on {@code executor} with the
+     * thread-bound context of the caller, captured now.
+     */
+    default Executor propagate(Executor executor) {
+        return executor;
+    }
+}
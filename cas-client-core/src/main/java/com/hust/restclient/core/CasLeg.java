@@ -0,0 +1,24 @@
+package com.hust.restclient.core;
+
+/**
+ * The steps of the CAS REST protocol a {@link CasClient} performs, as seen by a {@link CasExchangeInterceptor}.
+ */
+public enum CasLeg {
+
+    /** POST v1/tickets */
+    TGT,
+    /** POST v1/users */
+    USERS,
+    /** POST v1/tickets/{tgt} */
+    ST,
+    /** GET serviceValidate, or proxyValidate when a PGT is requested */
+    VALIDATE,
+    /** GET proxy */
+    PROXY,
+    /** GET v1/tickets/{tgt} */
+    CHECK_TGT,
+    /** DELETE v1/tickets/{tgt} */
+    DESTROY_TGT,
+    /** Parsing a serviceValidate or v1/users response, no I/O */
+    PARSE
+}
@@ -0,0 +1,17 @@
+package com.hust.restclient.core;
+
+/**
+ * How {@link CasClient#performCasLogin} talks to CAS.
+ */
+public enum CasLoginStrategy {
+
+    /** TGT, then ST, then serviceValidate: three sequential round trips */
+    THREE_LEG,
+
+    /**
+     * POST v1/users returns the principal and its attributes in one call while the TGT for the
+     * CASTGC cookie, then an ST on it for single logout, are requested in parallel.
+     * Falls back to THREE_LEG if the CAS server has no v1/users endpoint.
+     */
+    USERS_ENDPOINT
+}
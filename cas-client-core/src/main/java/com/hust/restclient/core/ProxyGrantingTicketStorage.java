@@ -0,0 +1,82 @@
+package com.hust.restclient.core;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PGTs delivered to the proxy callback URL, keyed by their PGTIOU until the validation response
+ * naming that IOU claims them. CAS calls the callback before it answers proxyValidate, so a claim
+ * normally follows within milliseconds; entries nobody claims are dropped after {@code maxAge}.
+ * Share one instance between the callback endpoint and every {@link CasClient} using it.
+ * <p>
+ * The callback is unauthenticated, so the storage holds at most {@code maxEntries} PGTs and refuses
+ * values longer than {@link #MAX_VALUE_LENGTH}; a flood of fake deliveries can delay proxying until
+ * its entries expire, but cannot grow the heap.
+ */
+public class ProxyGrantingTicketStorage {
+
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(1);
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    /** CAS PGTs and PGTIOUs are well under 100 characters */
+    public static final int MAX_VALUE_LENGTH = 256;
+
+    private record Entry(String pgt, long storedAtNanos) {
+    }
+
+    private final Map<String, Entry> pgtByIou = new ConcurrentHashMap<>();
+    private final long maxAgeNanos;
+    private final int maxEntries;
+    private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+
+    public ProxyGrantingTicketStorage() {
+        this(DEFAULT_MAX_AGE, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ProxyGrantingTicketStorage(Duration maxAge, int maxEntries) {
+        this.maxAgeNanos = maxAge.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Called by the proxy callback endpoint with the pgtIou and pgtId parameters CAS sent.
+     * @return false if the values are blank or oversized, or the storage is full of unexpired PGTs
+     */
+    public boolean save(String pgtIou, String pgt) {
+        if (!isAcceptable(pgtIou) || !isAcceptable(pgt)) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long lastPurge = lastPurgeNanos.get();
+        boolean full = pgtByIou.size() >= maxEntries;
+        if ((full || now - lastPurge > maxAgeNanos) && lastPurgeNanos.compareAndSet(lastPurge, now)) {
+            pgtByIou.values().removeIf(entry -> now - entry.storedAtNanos() > maxAgeNanos);
+        }
+        if (pgtByIou.size() >= maxEntries) {
+            return false;
+        }
+        pgtByIou.put(pgtIou, new Entry(pgt, now));
+        return true;
+    }
+
+    /**
+     * Claim the PGT delivered for this IOU; each PGT can be claimed once.
+     * @return the PGT, or null if CAS never delivered it or it was not claimed in time
+     */
+    public String retrieve(String pgtIou) {
+        Entry entry = pgtByIou.remove(pgtIou);
+        if (entry == null || System.nanoTime() - entry.storedAtNanos() > maxAgeNanos) {
+            return null;
+        }
+        return entry.pgt();
+    }
+
+    public int size() {
+        return pgtByIou.size();
+    }
+
+    private static boolean isAcceptable(String value) {
+        return value != null && !value.isBlank() && value.length() <= MAX_VALUE_LENGTH;
+    }
+}
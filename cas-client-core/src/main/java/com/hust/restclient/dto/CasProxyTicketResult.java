@@ -0,0 +1,36 @@
+package com.hust.restclient.dto;
+
+/**
+ * Outcome of asking CAS for a proxy ticket. An expired result means CAS no longer knows the PGT,
+ * so a new one has to be obtained; any other failure may be retried with the same PGT.
+ */
+public class CasProxyTicketResult {
+    private final boolean success;
+    private final boolean pgtExpired;
+    private final String message;
+    private final String proxyTicket;
+
+    private CasProxyTicketResult(boolean success, boolean pgtExpired, String message, String proxyTicket) {
+        this.success = success;
+        this.pgtExpired = pgtExpired;
+        this.message = message;
+        this.proxyTicket = proxyTicket;
+    }
+
+    public static CasProxyTicketResult success(String proxyTicket) {
+        return new CasProxyTicketResult(true, false, "Proxy ticket issued", proxyTicket);
+    }
+
+    public static CasProxyTicketResult pgtExpired(String message) {
+        return new CasProxyTicketResult(false, true, message, null);
+    }
+
+    public static CasProxyTicketResult failure(String message) {
+        return new CasProxyTicketResult(false, false, message, null);
+    }
+
+    public boolean isSuccess() { return success; }
+    public boolean isPgtExpired() { return pgtExpired; }
+    public String getMessage() { return message; }
+    public String getProxyTicket() { return proxyTicket; }
+}
@@ -11,12 +11,14 @@ public class CasUserDetail {
     private boolean success;
     private String username;
     private String role;
+    /** PGT issued during validation when a proxy callback URL is configured, otherwise null */
+    private String proxyGrantingTicket;
     
     public static CasUserDetail success(String username, String role) {
-        return new CasUserDetail(true, username, role);
+        return new CasUserDetail(true, username, role, null);
     }
     
     public static CasUserDetail failure() {
-        return new CasUserDetail(false, null, null);
+        return new CasUserDetail(false, null, null, null);
     }
 }
\ No newline at end of file
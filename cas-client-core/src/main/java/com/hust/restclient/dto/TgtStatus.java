@@ -0,0 +1,11 @@
+package com.hust.restclient.dto;
+
+/**
+ * Outcome of checking a TGT against the CAS server.
+ * UNKNOWN means CAS could not be asked (network error, 5xx) and must not be treated as a logout.
+ */
+public enum TgtStatus {
+    VALID,
+    INVALID,
+    UNKNOWN
+}
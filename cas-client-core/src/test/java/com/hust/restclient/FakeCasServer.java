@@ -0,0 +1,285 @@
+package com.hust.restclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process CAS server speaking the subset of the REST protocol the application uses:
+ * TGT issue/check/destroy (v1/tickets), ST issue (v1/tickets/{tgt}), serviceValidate, v1/users,
+ * and proxying: proxyValidate delivers a PGT to the pgtUrl callback, proxy mints proxy tickets.
+ * Every user accepts the password "password"; users named admin* get the ADMIN role, everyone else USER.
+ */
+public class FakeCasServer {
+
+    public static final String PASSWORD = "password";
+
+    static {
+        // HttpServer writes headers and body separately; without TCP_NODELAY every response with a body
+        // waits out the client's delayed ACK (~40ms). Read once, before the first server is created.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final AtomicLong ticketSequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, String> usernameByTgt = new ConcurrentHashMap<>();
+    private final Map<String, String> usernameByServiceTicket = new ConcurrentHashMap<>();
+    private final Map<String, String> usernameByPgt = new ConcurrentHashMap<>();
+    private final HttpClient callbackClient = HttpClient.newHttpClient();
+    /** Status v1/users answers with instead of authenticating, 0 when it works */
+    private volatile int usersEndpointStatus;
+
+    private FakeCasServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/cas/", this::handle);
+    }
+
+    /**
+     * @param latencyMillis artificial delay added to every CAS response to mimic a network round trip
+     */
+    public static FakeCasServer start(long latencyMillis) {
+        try {
+            FakeCasServer fake = new FakeCasServer(latencyMillis);
+            fake.server.start();
+            return fake;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start fake CAS server", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/cas/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        callbackClient.close();
+    }
+
+    /**
+     * Forget every PGT issued so far, as CAS does when they time out.
+     */
+    public void expireProxyGrantingTickets() {
+        usernameByPgt.clear();
+    }
+
+    /**
+     * @return the most requests this server was handling at the same time
+     */
+    public int maxConcurrentRequests() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * @return TGTs issued and not destroyed
+     */
+    public int liveTgts() {
+        return usernameByTgt.size();
+    }
+
+    /**
+     * Answer v1/users with this status from now on, like a CAS server without the endpoint; 0 restores it.
+     */
+    public void answerUsersEndpointWith(int status) {
+        usersEndpointStatus = status;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (exchange) {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            String path = exchange.getRequestURI().getPath().substring("/cas/".length());
+            String method = exchange.getRequestMethod();
+
+            if (path.equals("v1/tickets") && method.equals("POST")) {
+                issueTgt(exchange);
+            } else if (path.equals("v1/users") && method.equals("POST")) {
+                if (usersEndpointStatus != 0) {
+                    respond(exchange, usersEndpointStatus, "");
+                } else {
+                    authenticateUser(exchange);
+                }
+            } else if (path.startsWith("v1/tickets/")) {
+                String tgt = path.substring("v1/tickets/".length());
+                switch (method) {
+                    case "POST" -> issueServiceTicket(exchange, tgt);
+                    case "GET" -> respond(exchange, usernameByTgt.containsKey(tgt) ? 200 : 404, tgt);
+                    case "DELETE" -> respond(exchange, usernameByTgt.remove(tgt) != null ? 200 : 404, tgt);
+                    default -> respond(exchange, 405, "");
+                }
+            } else if (path.equals("serviceValidate") || path.equals("proxyValidate")) {
+                validate(exchange);
+            } else if (path.equals("proxy")) {
+                issueProxyTicket(exchange);
+            } else {
+                respond(exchange, 404, "");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void issueTgt(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(readBody(exchange));
+        String username = form.get("username");
+        if (username == null || !PASSWORD.equals(form.get("password"))) {
+            respond(exchange, 401, "Authentication failed");
+            return;
+        }
+        String tgt = "TGT-" + ticketSequence.incrementAndGet() + "-fake";
+        usernameByTgt.put(tgt, username);
+        exchange.getResponseHeaders().add("Location", baseUrl() + "v1/tickets/" + tgt);
+        respond(exchange, 201, "");
+    }
+
+    private void authenticateUser(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(readBody(exchange));
+        String username = form.get("username");
+        if (username == null || !PASSWORD.equals(form.get("password"))) {
+            respond(exchange, 401, "Authentication failed");
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        respond(exchange, 200, "{\"authentication\":{\"principal\":{\"id\":\"" + username + "\","
+            + "\"attributes\":{\"groupMembership\":[\"" + roleOf(username) + "\"]}}}}");
+    }
+
+    private void issueServiceTicket(HttpExchange exchange, String tgt) throws IOException {
+        readBody(exchange);
+        String username = usernameByTgt.get(tgt);
+        if (username == null) {
+            respond(exchange, 404, "TGT not found");
+            return;
+        }
+        String serviceTicket = "ST-" + ticketSequence.incrementAndGet() + "-fake";
+        usernameByServiceTicket.put(serviceTicket, username);
+        respond(exchange, 200, serviceTicket);
+    }
+
+    private void validate(HttpExchange exchange) throws IOException, InterruptedException {
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+        // Service tickets are single use
+        String username = usernameByServiceTicket.remove(query.getOrDefault("ticket", ""));
+        if (username == null) {
+            respond(exchange, 200, "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>"
+                + "<cas:authenticationFailure code=\"INVALID_TICKET\">Ticket not recognized</cas:authenticationFailure>"
+                + "</cas:serviceResponse>");
+            return;
+        }
+        String role = roleOf(username);
+        String pgtUrl = query.get("pgtUrl");
+        String pgtIou = pgtUrl != null ? deliverProxyGrantingTicket(pgtUrl, username) : null;
+        respond(exchange, 200, "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>"
+            + "<cas:authenticationSuccess>"
+            + "<cas:user>" + username + "</cas:user>"
+            + "<cas:attributes><cas:groupMembership>" + role + "</cas:groupMembership></cas:attributes>"
+            + (pgtIou != null ? "<cas:proxyGrantingTicket>" + pgtIou + "</cas:proxyGrantingTicket>" : "")
+            + "</cas:authenticationSuccess>"
+            + "</cas:serviceResponse>");
+    }
+
+    /**
+     * Like CAS: call the pgtUrl with the PGT and its IOU before answering, and only name the IOU if that worked.
+     */
+    private String deliverProxyGrantingTicket(String pgtUrl, String username) throws InterruptedException {
+        long sequence = ticketSequence.incrementAndGet();
+        String pgt = "PGT-" + sequence + "-fake";
+        String pgtIou = "PGTIOU-" + sequence + "-fake";
+        URI callback = URI.create(pgtUrl + (pgtUrl.contains("?") ? "&" : "?")
+            + "pgtIou=" + URLEncoder.encode(pgtIou, StandardCharsets.UTF_8)
+            + "&pgtId=" + URLEncoder.encode(pgt, StandardCharsets.UTF_8));
+        try {
+            HttpResponse<Void> response = callbackClient.send(HttpRequest.newBuilder(callback).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        usernameByPgt.put(pgt, username);
+        return pgtIou;
+    }
+
+    private void issueProxyTicket(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+        String username = usernameByPgt.get(query.getOrDefault("pgt", ""));
+        if (username == null || query.get("targetService") == null) {
+            respond(exchange, 200, "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>"
+                + "<cas:proxyFailure code=\"INVALID_TICKET\">PGT not recognized</cas:proxyFailure>"
+                + "</cas:serviceResponse>");
+            return;
+        }
+        // Proxy tickets validate like service tickets
+        String proxyTicket = "PT-" + ticketSequence.incrementAndGet() + "-fake";
+        usernameByServiceTicket.put(proxyTicket, username);
+        respond(exchange, 200, "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>"
+            + "<cas:proxySuccess><cas:proxyTicket>" + proxyTicket + "</cas:proxyTicket></cas:proxySuccess>"
+            + "</cas:serviceResponse>");
+    }
+
+    private static String roleOf(String username) {
+        return username.startsWith("admin") ? "ADMIN" : "USER";
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
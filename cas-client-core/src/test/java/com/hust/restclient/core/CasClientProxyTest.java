@@ -0,0 +1,155 @@
+package com.hust.restclient.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.hust.restclient.FakeCasServer;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.dto.CasUserDetail;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Proxy tickets against the fake CAS server, with a JDK HttpServer standing in for the pgtUrl callback endpoint.
+ */
+class CasClientProxyTest {
+
+    private static final long CAS_LATENCY_MILLIS = 150;
+    private static final List<String> TARGETS = List.of(
+        "https://orders.example.edu", "https://billing.example.edu", "https://grades.example.edu",
+        "https://library.example.edu");
+
+    private static FakeCasServer fakeCas;
+    private static HttpServer callbackServer;
+    private static ProxyGrantingTicketStorage storage;
+    private static CasClient client;
+    private static CasClient targetClient;
+
+    @BeforeAll
+    static void start() throws IOException {
+        fakeCas = FakeCasServer.start(CAS_LATENCY_MILLIS);
+        storage = new ProxyGrantingTicketStorage();
+        callbackServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        callbackServer.createContext("/pgtCallback", exchange -> {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (query.containsKey("pgtIou") && query.containsKey("pgtId")) {
+                storage.save(query.get("pgtIou"), query.get("pgtId"));
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        callbackServer.start();
+
+        client = new CasClient(CasClientConfig.builder()
+            .serverUrl(fakeCas.baseUrl())
+            .clientServiceUrl("http://localhost:8081")
+            .proxyCallbackUrl("http://127.0.0.1:" + callbackServer.getAddress().getPort() + "/pgtCallback")
+            .proxyGrantingTicketStorage(storage)
+            .build());
+        // A downstream service validating the proxy tickets it receives
+        targetClient = new CasClient(CasClientConfig.builder()
+            .serverUrl(fakeCas.baseUrl())
+            .clientServiceUrl(TARGETS.get(0))
+            .build());
+    }
+
+    @AfterAll
+    static void stop() {
+        client.close();
+        targetClient.close();
+        callbackServer.stop(0);
+        fakeCas.stop();
+    }
+
+    @Test
+    void loginObtainsPgtAndMintsProxyTicketsConcurrently() {
+        CasLoginResult login = client.performCasLogin("alice", FakeCasServer.PASSWORD);
+        assertTrue(login.isSuccess());
+        String pgt = login.getUserDetail().getProxyGrantingTicket();
+        assertNotNull(pgt);
+        assertEquals(0, storage.size());
+
+        long start = System.nanoTime();
+        Map<String, CasProxyTicketResult> tickets = client.requestProxyTickets(pgt, TARGETS);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(TARGETS, List.copyOf(tickets.keySet()));
+        for (Map.Entry<String, CasProxyTicketResult> ticket : tickets.entrySet()) {
+            assertTrue(ticket.getValue().isSuccess());
+            CasUserDetail user = targetClient.validateServiceTicket(ticket.getValue().getProxyTicket(), ticket.getKey());
+            assertEquals("alice", user.getUsername());
+        }
+        // One at a time this would take at least one CAS round trip per target
+        assertTrue(elapsedMillis < CAS_LATENCY_MILLIS * TARGETS.size(),
+            "minting " + TARGETS.size() + " proxy tickets took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void asyncLoginAndProxyTicketsNeedNoWaitingThread() {
+        CasLoginResult login = client.performCasLoginAsync("carol", FakeCasServer.PASSWORD).join();
+        assertTrue(login.isSuccess());
+        assertEquals("carol", login.getUserDetail().getUsername());
+        String pgt = login.getUserDetail().getProxyGrantingTicket();
+        assertNotNull(pgt);
+
+        Map<String, CasProxyTicketResult> tickets = client.requestProxyTicketsAsync(pgt, TARGETS).join();
+
+        assertEquals(TARGETS, List.copyOf(tickets.keySet()));
+        tickets.values().forEach(ticket -> assertTrue(ticket.isSuccess()));
+        assertFalse(client.performCasLoginAsync("carol", "wrong").join().isSuccess());
+    }
+
+    @Test
+    void expiredPgtIsReportedAsSuch() {
+        CasLoginResult login = client.performCasLogin("bob", FakeCasServer.PASSWORD);
+        String pgt = login.getUserDetail().getProxyGrantingTicket();
+        fakeCas.expireProxyGrantingTickets();
+
+        CasProxyTicketResult result = client.requestProxyTicket(pgt, TARGETS.get(0));
+
+        assertTrue(result.isPgtExpired());
+        assertTrue(client.requestProxyTicket(null, TARGETS.get(0)).isPgtExpired());
+    }
+
+    @Test
+    void storageRefusesOversizedValuesAndDeliveriesBeyondItsLimit() {
+        ProxyGrantingTicketStorage bounded = new ProxyGrantingTicketStorage(ProxyGrantingTicketStorage.DEFAULT_MAX_AGE, 2);
+
+        assertFalse(bounded.save("PGTIOU-1", "x".repeat(ProxyGrantingTicketStorage.MAX_VALUE_LENGTH + 1)));
+        assertTrue(bounded.save("PGTIOU-1", "PGT-1"));
+        assertTrue(bounded.save("PGTIOU-2", "PGT-2"));
+        assertFalse(bounded.save("PGTIOU-3", "PGT-3"));
+        assertEquals(2, bounded.size());
+
+        assertEquals("PGT-1", bounded.retrieve("PGTIOU-1"));
+        assertTrue(bounded.save("PGTIOU-3", "PGT-3"));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> values = new HashMap<>();
+        if (rawQuery == null) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hust.restclient.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.hust.restclient.FakeCasServer;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.TgtStatus;
+
+/**
+ * Cost of the library path for a lightweight consumer in a fresh JVM: time to build the client and
+ * finish the first login, the warm login time, and the classes and heap the client adds. Prints e.g.
+ * {@code ./mvnw test -pl cas-client-core -Dtest=CasClientStartupBenchmarkTest -Dbenchmark.logins=2000}.
+ */
+class CasClientStartupBenchmarkTest {
+
+    private static final int LOGINS = Integer.getInteger("benchmark.logins", 200);
+
+    private static FakeCasServer fakeCas;
+
+    @BeforeAll
+    static void startCas() {
+        fakeCas = FakeCasServer.start(0);
+    }
+
+    @AfterAll
+    static void stopCas() {
+        fakeCas.stop();
+    }
+
+    @Test
+    void coldStartAndFootprint() {
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long classesBefore = classLoading.getTotalLoadedClassCount();
+        long heapBefore = usedHeapAfterGc(memory);
+
+        long start = System.nanoTime();
+        CasClient client = new CasClient(CasClientConfig.builder()
+            .serverUrl(fakeCas.baseUrl())
+            .clientServiceUrl("http://localhost:8081")
+            .build());
+        long built = System.nanoTime();
+        CasLoginResult first = client.performCasLogin("alice", FakeCasServer.PASSWORD);
+        long firstLogin = System.nanoTime();
+
+        assertTrue(first.isSuccess());
+        assertEquals("alice", first.getUserDetail().getUsername());
+        assertEquals("USER", first.getUserDetail().getRole());
+        assertEquals(TgtStatus.VALID, client.checkTgt(CasClient.tgtOf(first.getCastgcCookie())));
+
+        long classesAdded = classLoading.getTotalLoadedClassCount() - classesBefore;
+        long heapAdded = usedHeapAfterGc(memory) - heapBefore;
+
+        long warmStart = System.nanoTime();
+        for (int i = 0; i < LOGINS; i++) {
+            assertTrue(client.performCasLogin("user" + i, FakeCasServer.PASSWORD).isSuccess());
+        }
+        double warmLoginMillis = (System.nanoTime() - warmStart) / 1_000_000.0 / LOGINS;
+        assertFalse(client.performCasLogin("alice", "wrong").isSuccess());
+
+        System.out.printf("CAS core client: build %.1f ms, first login %.1f ms, warm login %.2f ms (%d logins), "
+                + "+%d classes, +%d KB heap, JVM uptime at first login %d ms%n",
+            (built - start) / 1_000_000.0, (firstLogin - built) / 1_000_000.0, warmLoginMillis, LOGINS,
+            classesAdded, heapAdded / 1024, ManagementFactory.getRuntimeMXBean().getUptime());
+        client.close();
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hust.restclient.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.hust.restclient.FakeCasServer;
+import com.hust.restclient.dto.CasLoginResult;
+
+/**
+ * The USERS_ENDPOINT login strategy against the fake CAS server, with and without a v1/users endpoint.
+ */
+class CasClientUsersEndpointTest {
+
+    private FakeCasServer fakeCas;
+    private CasClient client;
+
+    @BeforeEach
+    void start() {
+        fakeCas = FakeCasServer.start(0);
+        client = new CasClient(CasClientConfig.builder()
+            .serverUrl(fakeCas.baseUrl())
+            .clientServiceUrl("http://localhost:8081")
+            .loginStrategy(CasLoginStrategy.USERS_ENDPOINT)
+            .build());
+    }
+
+    @AfterEach
+    void stop() {
+        client.close();
+        fakeCas.stop();
+    }
+
+    @Test
+    void loginCarriesServiceTicketForSingleLogout() {
+        CasLoginResult login = client.performCasLogin("alice", FakeCasServer.PASSWORD);
+
+        assertSuccess(login, "alice");
+        // A real ticket of the login's TGT, which CAS names as SessionIndex in its logout request
+        assertTrue(client.validateServiceTicket(login.getServiceTicket(), "http://localhost:8081").isSuccess());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {404, 405, 501})
+    void fallsBackToThreeLegWhenCasHasNoUsersEndpoint(int status) {
+        fakeCas.answerUsersEndpointWith(status);
+
+        assertSuccess(client.performCasLogin("alice", FakeCasServer.PASSWORD), "alice");
+        // From then on three-leg straight away
+        assertSuccess(client.performCasLogin("bob", FakeCasServer.PASSWORD), "bob");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {404, 405, 501})
+    void asyncLoginFallsBackToThreeLegWhenCasHasNoUsersEndpoint(int status) {
+        fakeCas.answerUsersEndpointWith(status);
+
+        assertSuccess(client.performCasLoginAsync("alice", FakeCasServer.PASSWORD).join(), "alice");
+        assertSuccess(client.performCasLoginAsync("bob", FakeCasServer.PASSWORD).join(), "bob");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {500, 503})
+    void serverErrorFallsBackToServiceValidateForThatLogin(int status) {
+        fakeCas.answerUsersEndpointWith(status);
+        assertSuccess(client.performCasLogin("alice", FakeCasServer.PASSWORD), "alice");
+        assertSuccess(client.performCasLoginAsync("bob", FakeCasServer.PASSWORD).join(), "bob");
+    }
+
+    @Test
+    void rejectedByUsersEndpointDestroysTheParallelTgt() throws InterruptedException {
+        // The TGT leg succeeds, v1/users says no
+        fakeCas.answerUsersEndpointWith(401);
+
+        assertFalse(client.performCasLogin("alice", FakeCasServer.PASSWORD).isSuccess());
+        assertFalse(client.performCasLoginAsync("bob", FakeCasServer.PASSWORD).join().isSuccess());
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (fakeCas.liveTgts() > 0) {
+            assertTrue(System.nanoTime() < deadline, "TGTs left on CAS: " + fakeCas.liveTgts());
+            Thread.sleep(5);
+        }
+    }
+
+    private static void assertSuccess(CasLoginResult login, String username) {
+        assertTrue(login.isSuccess(), login.getMessage());
+        assertNotNull(login.getServiceTicket());
+        assertTrue(login.getServiceTicket().startsWith("ST-"), login.getServiceTicket());
+        assertNotNull(CasClient.tgtOf(login.getCastgcCookie()));
+        assertEquals(username, login.getUserDetail().getUsername());
+    }
+}
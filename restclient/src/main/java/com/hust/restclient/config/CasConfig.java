@@ -0,0 +1,269 @@
+package com.hust.restclient.config;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.hust.restclient.core.CasLoginStrategy;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Data
+@Configuration
+public class CasConfig {
+    
+    public static final String DEFAULT_TENANT_ID = "default";
+    
+    private String tenantId = DEFAULT_TENANT_ID;
+    
+    @Value("${cas.server.url}")
+    private String serverUrl;
+    
+    @Value("${cas.client.service.url}")
+    private String clientServiceUrl;
+    
+    @Value("${cas.login.strategy:THREE_LEG}")
+    private CasLoginStrategy loginStrategy;
+    
+    @Value("${cas.login.cache.enabled:false}")
+    private boolean loginCacheEnabled;
+    
+    @Value("${cas.login.cache.ttl-seconds:10}")
+    private long loginCacheTtlSeconds;
+    
+    @Value("${cas.login.cache.hash-iterations:20000}")
+    private int loginCacheHashIterations;
+    
+    @Value("${cas.login.cache.max-entries:10000}")
+    private int loginCacheMaxEntries;
+    
+    @Value("${cas.authen.ticket-pool.enabled:false}")
+    private boolean ticketPoolEnabled;
+    
+    @Value("${cas.authen.ticket-pool.size:2}")
+    private int ticketPoolSize;
+    
+    @Value("${cas.authen.ticket-pool.max-age-ms:5000}")
+    private long ticketPoolMaxAgeMillis;
+    
+    @Value("${cas.authen.ticket-pool.max-tgts:10000}")
+    private int ticketPoolMaxTgts;
+    
+    /** pgtUrl CAS delivers proxy-granting tickets to; empty disables proxy tickets */
+    @Value("${cas.proxy.callback-url:}")
+    private String proxyCallbackUrl;
+    
+    @Value("${cas.proxy.max-targets:16}")
+    private int proxyMaxTargets;
+    
+    /** PGTs delivered to the callback but not yet claimed by a validation response */
+    @Value("${cas.proxy.pgt-storage.max-entries:10000}")
+    private int proxyPgtStorageMaxEntries;
+    
+    @Value("${cas.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMillis;
+    
+    @Value("${cas.http.read-timeout-ms:5000}")
+    private int readTimeoutMillis;
+    
+    @Value("${cas.max-concurrency:64}")
+    private int maxConcurrency;
+    
+    @Value("${cas.bulkhead.max-wait-ms:250}")
+    private long bulkheadMaxWaitMillis;
+    
+    @Value("${cas.async.pool-size:32}")
+    private int asyncPoolSize;
+    
+    @Value("${cas.async.queue-capacity:200}")
+    private int asyncQueueCapacity;
+    
+    @Value("${cas.async.timeout-ms:15000}")
+    private long asyncTimeoutMillis;
+    
+    @Value("${cas.server-timing.enabled:false}")
+    private boolean serverTimingEnabled;
+    
+    @Value("${cas.server-timing.sample-rate:1.0}")
+    private double serverTimingSampleRate;
+    
+    @Value("${cas.session.max-per-user:0}")
+    private int sessionMaxPerUser;
+    
+    @Value("${cas.session.max-memory-bytes:67108864}")
+    private long sessionMaxMemoryBytes;
+    
+    @Value("${cas.session.reactive.max-sessions:100000}")
+    private int reactiveMaxSessions;
+    
+    @Value("${cas.revocation.enabled:false}")
+    private boolean revocationEnabled;
+    
+    @Value("${cas.revocation.bind-address:0.0.0.0}")
+    private String revocationBindAddress;
+    
+    @Value("${cas.revocation.port:47100}")
+    private int revocationPort;
+    
+    /** Other instances as host:port, comma separated */
+    @Value("${cas.revocation.peers:}")
+    private String revocationPeers;
+    
+    @Value("${cas.revocation.shared-secret:}")
+    private String revocationSharedSecret;
+    
+    @Value("${cas.revocation.batch-delay-ms:2}")
+    private long revocationBatchDelayMillis;
+    
+    @Value("${cas.revocation.ttl-seconds:28800}")
+    private long revocationTtlSeconds;
+    
+    @Value("${cas.health.window-seconds:30}")
+    private int healthWindowSeconds;
+    
+    @Value("${cas.health.min-calls:20}")
+    private int healthMinCalls;
+    
+    @Value("${cas.health.degraded.latency-ms:1000}")
+    private long healthDegradedLatencyMillis;
+    
+    @Value("${cas.health.degraded.error-rate:0.05}")
+    private double healthDegradedErrorRate;
+    
+    @Value("${cas.health.degraded.saturation:0.75}")
+    private double healthDegradedSaturation;
+    
+    @Value("${cas.health.out-of-service.latency-ms:3000}")
+    private long healthOutOfServiceLatencyMillis;
+    
+    @Value("${cas.health.out-of-service.error-rate:0.25}")
+    private double healthOutOfServiceErrorRate;
+    
+    @Value("${cas.health.out-of-service.saturation:0.95}")
+    private double healthOutOfServiceSaturation;
+    
+    @Value("${cas.session.revalidation.enabled:true}")
+    private boolean revalidationEnabled;
+    
+    @Value("${cas.session.revalidation.interval-seconds:60}")
+    private long revalidationIntervalSeconds;
+    
+    @Value("${cas.session.revalidation.jitter-seconds:10}")
+    private long revalidationJitterSeconds;
+    
+    @Value("${cas.session.revalidation.batch-size:50}")
+    private int revalidationBatchSize;
+    
+    @Value("${cas.session.revalidation.max-concurrency:4}")
+    private int revalidationMaxConcurrency;
+    
+    @PostConstruct
+    public void validateConfiguration() {
+        log.info("CAS Configuration loaded for tenant {}:", tenantId);
+        log.info("Server URL: {}", serverUrl);
+        log.info("Client Service URL: {}", clientServiceUrl);
+        
+        if (serverUrl == null || serverUrl.trim().isEmpty()) {
+            throw new IllegalStateException("CAS server URL is not configured");
+        }
+        
+        if (clientServiceUrl == null || clientServiceUrl.trim().isEmpty()) {
+            throw new IllegalStateException("CAS client service URL is not configured");
+        }
+        
+        if (maxConcurrency <= 0 || bulkheadMaxWaitMillis < 0) {
+            throw new IllegalStateException("CAS max concurrency must be positive");
+        }
+        
+        if (asyncPoolSize <= 0 || asyncQueueCapacity <= 0 || asyncTimeoutMillis <= 0) {
+            throw new IllegalStateException("CAS async pool size, queue capacity and timeout must be positive");
+        }
+        
+        if (serverTimingSampleRate < 0.0 || serverTimingSampleRate > 1.0) {
+            throw new IllegalStateException("Server-Timing sample rate must be between 0 and 1");
+        }
+        
+        if (sessionMaxPerUser < 0 || sessionMaxMemoryBytes < 0 || reactiveMaxSessions < 0) {
+            throw new IllegalStateException("CAS session limits must not be negative (0 disables a limit)");
+        }
+        
+        if (loginCacheEnabled && (loginCacheTtlSeconds <= 0 || loginCacheHashIterations <= 0
+                || loginCacheMaxEntries <= 0)) {
+            throw new IllegalStateException("CAS login cache TTL, hash iterations and max entries must be positive");
+        }
+        
+        if (ticketPoolEnabled && (ticketPoolSize <= 0 || ticketPoolMaxAgeMillis <= 0 || ticketPoolMaxTgts <= 0)) {
+            throw new IllegalStateException("CAS service ticket pool size, max age and max TGTs must be positive");
+        }
+        
+        if (revocationBatchDelayMillis < 0 || revocationTtlSeconds <= 0) {
+            throw new IllegalStateException("CAS revocation batch delay must not be negative and TTL must be positive");
+        }
+        
+        if (revocationEnabled && (revocationSharedSecret == null || revocationSharedSecret.isBlank())) {
+            // Anyone reaching the port could otherwise log users out
+            throw new IllegalStateException("cas.revocation.shared-secret must be set when cas.revocation.enabled=true");
+        }
+        
+        if (isProxyEnabled() && !proxyCallbackUrl.startsWith("https://")) {
+            log.warn("CAS only delivers PGTs to an https callback URL, got {}", proxyCallbackUrl);
+        }
+        
+        if (proxyMaxTargets <= 0) {
+            throw new IllegalStateException("CAS proxy max targets must be positive");
+        }
+        
+        if (healthWindowSeconds <= 0 || healthMinCalls < 0
+                || healthDegradedLatencyMillis > healthOutOfServiceLatencyMillis
+                || healthDegradedErrorRate > healthOutOfServiceErrorRate
+                || healthDegradedSaturation > healthOutOfServiceSaturation) {
+            throw new IllegalStateException(
+                "CAS health window must be positive and degraded thresholds must not exceed out-of-service thresholds");
+        }
+        
+        if (revalidationEnabled && (revalidationIntervalSeconds <= 0 || revalidationBatchSize <= 0
+                || revalidationMaxConcurrency <= 0 || revalidationJitterSeconds < 0)) {
+            throw new IllegalStateException("CAS session revalidation settings must be positive");
+        }
+        
+        // Ensure server URL ends with / if it doesn't already
+        if (!serverUrl.endsWith("/")) {
+            serverUrl = serverUrl + "/";
+        }
+    }
+    
+    public boolean isProxyEnabled() {
+        return proxyCallbackUrl != null && !proxyCallbackUrl.isBlank();
+    }
+    
+    /**
+     * PGTs delivered to the proxy callback, shared by all tenants: IOUs are unique across CAS servers.
+     */
+    @Bean
+    public ProxyGrantingTicketStorage proxyGrantingTicketStorage() {
+        return new ProxyGrantingTicketStorage(ProxyGrantingTicketStorage.DEFAULT_MAX_AGE, proxyPgtStorageMaxEntries);
+    }
+    
+    /**
+     * Copy of this configuration for another tenant: own CAS server, service URL and concurrency limit,
+     * everything else (timeouts, pools, feature flags) inherited.
+     */
+    public CasConfig forTenant(String tenantId, String tenantServerUrl, String tenantClientServiceUrl,
+                               int tenantMaxConcurrency) {
+        CasConfig tenant = new CasConfig();
+        BeanUtils.copyProperties(this, tenant);
+        tenant.setTenantId(tenantId);
+        tenant.setServerUrl(tenantServerUrl);
+        tenant.setClientServiceUrl(tenantClientServiceUrl);
+        if (tenantMaxConcurrency > 0) {
+            tenant.setMaxConcurrency(tenantMaxConcurrency);
+        }
+        tenant.validateConfiguration();
+        return tenant;
+    }
+}
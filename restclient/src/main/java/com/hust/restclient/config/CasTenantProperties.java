@@ -0,0 +1,41 @@
+package com.hust.restclient.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Additional CAS tenants. The top-level cas.server.url / cas.client.service.url remain the default tenant.
+ * <pre>
+ * cas.tenants.hr.server-url=https://cas.hr.example.edu/cas/
+ * cas.tenants.hr.client-service-url=https://hr.example.edu
+ * cas.tenants.hr.hosts=hr.example.edu
+ * cas.tenants.hr.path-prefix=/hr
+ * cas.tenants.hr.max-concurrency=16
+ * </pre>
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cas")
+public class CasTenantProperties {
+
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    @Data
+    public static class Tenant {
+        private String serverUrl;
+        private String clientServiceUrl;
+        /** Host names (without port) routed to this tenant */
+        private List<String> hosts = new ArrayList<>();
+        /** Path prefix routed to this tenant, e.g. /hr; stripped before dispatching to the controllers */
+        private String pathPrefix;
+        /** Max concurrent CAS calls for this tenant; 0 inherits cas.max-concurrency */
+        private int maxConcurrency;
+    }
+}
@@ -0,0 +1,78 @@
+package com.hust.restclient.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+
+import com.hust.restclient.security.CasServerSecurityContextRepository;
+import com.hust.restclient.security.RoleMaskAuthorizationManager;
+import com.hust.restclient.security.RoleRegistry;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link SecurityConfig}. Reactive method security only covers methods returning
+ * a Publisher, so the role checks the controllers declare with @PreAuthorize are enforced by these URL rules.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private static final byte[] AUTHENTICATION_REQUIRED =
+        "{\"error\":\"Authentication required\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final CasServerSecurityContextRepository securityContextRepository;
+    private final RoleRegistry roleRegistry;
+
+    public ReactiveSecurityConfig(CasServerSecurityContextRepository securityContextRepository,
+                                  RoleRegistry roleRegistry) {
+        this.securityContextRepository = securityContextRepository;
+        this.roleRegistry = roleRegistry;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+            .csrf(csrf -> csrf.disable())
+            .httpBasic(basic -> basic.disable())
+            .formLogin(form -> form.disable())
+            .logout(logout -> logout.disable())
+            .securityContextRepository(securityContextRepository)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint((exchange, e) -> unauthorized(exchange.getResponse())))
+            .authorizeExchange(authz -> authz
+                .pathMatchers("/api/auth/login", "/api/auth/logout", "/api/auth/slo", "/api/auth/proxy-callback",
+                    "/public/**",
+                    "/actuator/health", "/actuator/health/**").permitAll()
+                .pathMatchers("/api/admin/**").access(hasRole("ADMIN"))
+                .pathMatchers("/api/user/**").access(hasAnyRole("USER", "ADMIN"))
+                .anyExchange().authenticated()
+            );
+
+        return http.build();
+    }
+
+    private static Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(AUTHENTICATION_REQUIRED)));
+    }
+
+    private RoleMaskAuthorizationManager<AuthorizationContext> hasRole(String role) {
+        return RoleMaskAuthorizationManager.hasRole(roleRegistry, role);
+    }
+
+    private RoleMaskAuthorizationManager<AuthorizationContext> hasAnyRole(String... roles) {
+        return RoleMaskAuthorizationManager.hasAnyRole(roleRegistry, roles);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hust.restclient.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import org.springframework.web.server.session.CookieWebSessionIdResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.InMemoryWebSessionStore;
+import org.springframework.web.server.session.WebSessionIdResolver;
+import org.springframework.web.server.session.WebSessionManager;
+
+import com.hust.restclient.security.ReactiveTenantResolutionFilter;
+import com.hust.restclient.service.CasTenantRegistry;
+
+/**
+ * WebFlux counterpart of {@link WebConfig}, active with spring.main.web-application-type=reactive
+ * (the "reactive" profile).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and would otherwise win; the reactive stack runs on Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Exposed as a bean so ReactiveCasSessionRegistry can look sessions up and remove them.
+     */
+    @Bean
+    public InMemoryWebSessionStore webSessionStore(CasConfig casConfig) {
+        InMemoryWebSessionStore store = new InMemoryWebSessionStore();
+        // New sessions beyond the cap are refused on save; 0 = unlimited
+        store.setMaxSessions(casConfig.getReactiveMaxSessions() > 0
+            ? casConfig.getReactiveMaxSessions() : Integer.MAX_VALUE);
+        return store;
+    }
+
+    @Bean(WebHttpHandlerBuilder.WEB_SESSION_MANAGER_BEAN_NAME)
+    public WebSessionManager webSessionManager(InMemoryWebSessionStore webSessionStore,
+                                               ObjectProvider<WebSessionIdResolver> webSessionIdResolver) {
+        DefaultWebSessionManager manager = new DefaultWebSessionManager();
+        manager.setSessionStore(webSessionStore);
+        manager.setSessionIdResolver(webSessionIdResolver.getIfAvailable(CookieWebSessionIdResolver::new));
+        return manager;
+    }
+
+    @Bean
+    public ReactiveTenantResolutionFilter reactiveTenantResolutionFilter(CasTenantRegistry tenantRegistry) {
+        // Highest precedence, so the security chain sees the tenant and the un-prefixed path
+        return new ReactiveTenantResolutionFilter(tenantRegistry);
+    }
+}
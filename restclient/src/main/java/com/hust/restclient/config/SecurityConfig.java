@@ -0,0 +1,73 @@
+package com.hust.restclient.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.hust.restclient.security.PreAuthorizeRoleAuthorizationManager;
+import com.hust.restclient.security.RoleMaskAuthorizationManager;
+import com.hust.restclient.security.RoleRegistry;
+import com.hust.restclient.security.SimpleAuthFilter;
+
+import jakarta.servlet.DispatcherType;
+
+@Configuration
+@EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+// @PreAuthorize is handled by the role-mask interceptor below instead of the SpEL one
+@EnableMethodSecurity(prePostEnabled = false)
+public class SecurityConfig {
+    
+    private final SimpleAuthFilter simpleAuthFilter;
+    private final RoleRegistry roleRegistry;
+
+    public SecurityConfig(SimpleAuthFilter simpleAuthFilter, RoleRegistry roleRegistry) {
+        this.simpleAuthFilter = simpleAuthFilter;
+        this.roleRegistry = roleRegistry;
+    }
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeRoleAdvisor(RoleRegistry roleRegistry, ApplicationContext applicationContext) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+            new PreAuthorizeRoleAuthorizationManager(roleRegistry, applicationContext));
+    }
+    
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        http
+            .csrf(csrf -> csrf.disable())
+            .addFilterBefore(simpleAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .authorizeHttpRequests(authz -> authz
+                // Async results are dispatched back after the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/api/auth/login", "/api/auth/logout", "/api/auth/slo", "/api/auth/proxy-callback",
+                    "/public/**",
+                    "/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/api/admin/**").access(hasRole("ADMIN"))
+                .requestMatchers("/api/user/**").access(hasAnyRole("USER", "ADMIN"))
+                .anyRequest().authenticated()
+            );
+        
+        return http.build();
+    }
+    
+    private RoleMaskAuthorizationManager<RequestAuthorizationContext> hasRole(String role) {
+        return RoleMaskAuthorizationManager.hasRole(roleRegistry, role);
+    }
+    
+    private RoleMaskAuthorizationManager<RequestAuthorizationContext> hasAnyRole(String... roles) {
+        return RoleMaskAuthorizationManager.hasAnyRole(roleRegistry, roles);
+    }
+}
@@ -4,12 +4,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.web.client.RestTemplate;
 
 import javax.net.ssl.*;
-import java.io.IOException;
 import java.io.InputStream;
+import java.net.Socket;
 import java.security.KeyStore;
+import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 
@@ -17,32 +17,12 @@ import java.security.cert.X509Certificate;
 @Configuration
 public class SslConfig {
 
+    /**
+     * SSL context of every CAS client: trusts server.crt and, like before, does not check the CAS host name.
+     */
     @Bean
-    public RestTemplate restTemplate() throws Exception {
-        // Create a custom SSL context that trusts the server certificate
-        SSLContext sslContext = createSSLContext();
-        
-        // Create a custom SSL socket factory
-        SSLSocketFactory sslSocketFactory = sslContext.getSocketFactory();
-        
-        // Create a custom hostname verifier that accepts all hostnames
-        HostnameVerifier hostnameVerifier = (hostname, session) -> true;
-        
-        // Create a custom HTTP client factory
-        org.springframework.http.client.SimpleClientHttpRequestFactory requestFactory = 
-            new org.springframework.http.client.SimpleClientHttpRequestFactory() {
-                @Override
-                protected void prepareConnection(java.net.HttpURLConnection connection, String httpMethod) throws IOException {
-                    super.prepareConnection(connection, httpMethod);
-                    if (connection instanceof HttpsURLConnection) {
-                        HttpsURLConnection httpsConnection = (HttpsURLConnection) connection;
-                        httpsConnection.setSSLSocketFactory(sslSocketFactory);
-                        httpsConnection.setHostnameVerifier(hostnameVerifier);
-                    }
-                }
-            };
-        
-        return new RestTemplate(requestFactory);
+    public SSLContext casSslContext() throws Exception {
+        return createSSLContext();
     }
     
     private SSLContext createSSLContext() throws Exception {
@@ -68,9 +48,10 @@ public class SslConfig {
                 TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
                 tmf.init(trustStore);
                 
-                // Create SSL context
+                // Create SSL context; the JDK HttpClient has no hostname verifier hook, so skip it in the trust manager
+                X509TrustManager trustManager = (X509TrustManager) tmf.getTrustManagers()[0];
                 SSLContext sslContext = SSLContext.getInstance("TLS");
-                sslContext.init(null, tmf.getTrustManagers(), null);
+                sslContext.init(null, new TrustManager[] { new HostnameIgnoringTrustManager(trustManager) }, null);
                 
                 log.info("SSL context created successfully with server certificate");
                 return sslContext;
@@ -98,4 +79,56 @@ public class SslConfig {
         log.warn("Created trust-all SSL context for development (INSECURE - only use for development)");
         return sslContext;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Checks the certificate chain but not the host name: the JDK only verifies host names in the
+     * socket/engine variants of checkServerTrusted, which here delegate to the plain variant.
+     */
+    private static final class HostnameIgnoringTrustManager extends X509ExtendedTrustManager {
+        
+        private final X509TrustManager delegate;
+        
+        private HostnameIgnoringTrustManager(X509TrustManager delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+        
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+        
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+        
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+        
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+        
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+        
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.hust.restclient.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.hust.restclient.security.TenantResolutionFilter;
+import com.hust.restclient.service.CasTenantRegistry;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig {
+    // The CAS SSL context is configured in SslConfig
+
+    @Bean
+    public FilterRegistrationBean<TenantResolutionFilter> tenantResolutionFilter(CasTenantRegistry tenantRegistry) {
+        // Must run before Spring Security so the security chain sees the tenant and the un-prefixed path
+        FilterRegistrationBean<TenantResolutionFilter> registration =
+            new FilterRegistrationBean<>(new TenantResolutionFilter(tenantRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
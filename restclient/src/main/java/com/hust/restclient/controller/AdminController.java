@@ -1,19 +1,29 @@
 package com.hust.restclient.controller;
 
+import com.hust.restclient.security.CasSessions;
+import com.hust.restclient.service.CasRevocationBus;
+import com.hust.restclient.service.CasTenantRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = "*")
+@RequiredArgsConstructor
 public class AdminController {
 
+    private final CasTenantRegistry tenantRegistry;
+    private final CasSessions sessionRegistry;
+    private final CasRevocationBus revocationBus;
+
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getAllUsers(Authentication authentication) {
@@ -36,4 +46,28 @@ public class AdminController {
             "reports", new String[]{"Financial Report", "User Activity", "System Health"}
         ));
     }
+
+    @GetMapping("/tenants")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTenants(Authentication authentication) {
+        log.info("Admin {} accessing CAS tenant metrics", authentication.getName());
+        List<Map<String, Object>> tenants = tenantRegistry.all().stream()
+            .map(tenant -> tenant.client().getBulkhead().snapshot())
+            .toList();
+        return ResponseEntity.ok(Map.of(
+            "message", "CAS tenant metrics",
+            "tenants", tenants
+        ));
+    }
+
+    @GetMapping("/sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSessionStats(Authentication authentication) {
+        log.info("Admin {} accessing session statistics", authentication.getName());
+        return ResponseEntity.ok(Map.of(
+            "message", "Session statistics",
+            "sessions", sessionRegistry.snapshot(),
+            "revocations", revocationBus.snapshot()
+        ));
+    }
 }
@@ -0,0 +1,357 @@
+package com.hust.restclient.controller;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+import com.hust.restclient.dto.AuthenticationResponse;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.dto.CasUserDetail;
+import com.hust.restclient.dto.LoginRequest;
+import com.hust.restclient.dto.LoginResponse;
+import com.hust.restclient.dto.ProxyTicketRequest;
+import com.hust.restclient.security.CasPrincipal;
+import com.hust.restclient.security.CasSessionRegistry;
+import com.hust.restclient.service.CasCallExecutor;
+import com.hust.restclient.service.CasLogoutRequestParser;
+import com.hust.restclient.service.CasProxyTicketService;
+import com.hust.restclient.service.CasRestClient;
+import com.hust.restclient.service.CasRevocationBus;
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+import com.hust.restclient.service.CasTimingRecorder;
+import com.hust.restclient.service.ServerTimingSampler;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AuthController {
+
+    private final CasTenantRegistry tenantRegistry;
+    private final CasCallExecutor casCallExecutor;
+    private final CasSessionRegistry sessionRegistry;
+    private final CasLogoutRequestParser logoutRequestParser;
+    private final ServerTimingSampler serverTimingSampler;
+    private final CasProxyTicketService proxyTicketService;
+    private final ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+    private final CasRevocationBus revocationBus;
+    
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest, 
+                                                                HttpServletRequest request) {
+        log.info("Login attempt for user: {}", loginRequest.getUsername());
+        
+        CasTenant tenant = tenantRegistry.resolve(request);
+        CasTimingRecorder timings = serverTimingSampler.sample(request);
+        // The request is only touched on the container thread: the session is created here and the CAS pool
+        // thread merely fills it in
+        long sessionStart = System.nanoTime();
+        HttpSession session = request.getSession(true);
+        boolean newSession = session.isNew();
+        if (timings != null) {
+            timings.add(CasTimingRecorder.Leg.SESSION, System.nanoTime() - sessionStart);
+        }
+        // The three-leg CAS exchange runs on the CAS pool; the container thread is released meanwhile.
+        // A login that completes after the caller timed out has its TGT destroyed rather than orphaned.
+        return casCallExecutor.submit(tenant, () -> CasTimingRecorder.callWith(timings, () -> tenant.client().performCasLogin(
+                loginRequest.getUsername(), 
+                loginRequest.getPassword()
+            )), tenant.client()::discardLogin)
+            .thenApply(result -> completeLogin(result, loginRequest, session, newSession, tenant))
+            .exceptionally(e -> {
+                HttpStatus status = statusFor(e);
+                log.error("Login for user {} failed with {}", loginRequest.getUsername(), status, e);
+                discardNewSession(session, newSession);
+                return ResponseEntity.status(status).body(LoginResponse.failure(messageFor(status)));
+            })
+            .thenApply(entity -> serverTimingSampler.withServerTiming(entity, timings));
+    }
+    
+    private ResponseEntity<LoginResponse> completeLogin(CasLoginResult result, LoginRequest loginRequest,
+                                                        HttpSession session, boolean newSession, CasTenant tenant) {
+        if (!result.isSuccess()) {
+            discardNewSession(session, newSession);
+            LoginResponse loginResponse = LoginResponse.failure(result.getMessage());
+            return ResponseEntity.badRequest().body(loginResponse);
+        }
+        
+        // Get user details from login result (already validated)
+        CasUserDetail userDetail = result.getUserDetail();
+        String actualRole = "USER"; // Default role
+        if (userDetail != null && userDetail.getRole() != null) {
+            actualRole = userDetail.getRole();
+        }
+        
+        // Store authentication in HTTP session with CORRECT role
+        session.setAttribute(CasSessionRegistry.PRINCIPAL_ATTRIBUTE, new CasPrincipal(
+            loginRequest.getUsername(),
+            actualRole, // Use actual role from CAS
+            extractTgtFromCookie(result.getCastgcCookie()),
+            result.getServiceTicket(),
+            tenant.id(),
+            userDetail != null ? userDetail.getProxyGrantingTicket() : null
+        ));
+        session.setMaxInactiveInterval(30 * 60); // 30 minutes
+        
+        log.info("User {} logged in successfully with role: {}, session created: {}", 
+                loginRequest.getUsername(), actualRole, session.getId());
+        
+        LoginResponse loginResponse = LoginResponse.success(
+            result.getServiceTicket()
+        );
+        // Set CASTGC cookie in response
+        return ResponseEntity.ok()
+            .header(HttpHeaders.SET_COOKIE, result.getCastgcCookie())
+            .body(loginResponse);
+    }
+    
+    /**
+     * A session this login attempt created is not kept when the login fails.
+     */
+    private static void discardNewSession(HttpSession session, boolean newSession) {
+        if (!newSession) {
+            return;
+        }
+        try {
+            session.invalidate();
+        } catch (IllegalStateException e) {
+            // already invalidated
+        }
+    }
+    
+    private String extractTgtFromCookie(String castgcCookie) {
+        // Extract TGT from "CASTGC=TGT-123-abc; Path=/; Secure; HttpOnly"
+        if (castgcCookie != null && castgcCookie.startsWith("CASTGC=")) {
+            String value = castgcCookie.substring(7); // Remove "CASTGC="
+            int semicolonIndex = value.indexOf(';');
+            return semicolonIndex > 0 ? value.substring(0, semicolonIndex) : value;
+        }
+        return null;
+    }
+
+    @PostMapping("authen")
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> authenticate(HttpServletRequest request){
+        Cookie[] cookies = request.getCookies();
+        String castgc = null;
+        if (cookies != null) {
+            castgc = Arrays.stream(cookies)
+                    .filter(c -> "CASTGC".equals(c.getName()))
+                    .map(Cookie::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (castgc == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        
+        String tgt = castgc;
+        if (revocationBus.isRevoked(tgt)) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(AuthenticationResponse.failure("Invalid session")));
+        }
+        CasTenant tenant = tenantRegistry.resolve(request);
+        CasRestClient casRestClient = tenant.client();
+        CasTimingRecorder timings = serverTimingSampler.sample(request);
+        return casCallExecutor.submit(tenant, () -> CasTimingRecorder.callWith(timings,
+                () -> authenticateWithTgt(casRestClient, tgt)))
+            .exceptionally(e -> {
+                HttpStatus status = statusFor(e);
+                log.error("Authenticating the user failed with {}", status, e);
+                return ResponseEntity.status(status).body(AuthenticationResponse.failure(messageFor(status)));
+            })
+            .thenApply(entity -> serverTimingSampler.withServerTiming(entity, timings));
+    }
+    
+    private ResponseEntity<AuthenticationResponse> authenticateWithTgt(CasRestClient casRestClient, String castgc) {
+        // Get a service ticket using TGT (pre-minted when the ticket pool has one) and validate it
+        CasRestClient.TgtAuthentication authentication = casRestClient.authenticateTgt(castgc);
+        String serviceTicket = authentication.serviceTicket();
+        
+        if (serviceTicket == null) {
+            AuthenticationResponse authenResponse = AuthenticationResponse.failure("Invalid session");
+            return ResponseEntity.badRequest().body(authenResponse);
+        }
+        
+        CasUserDetail userDetail = authentication.userDetail();
+        if (userDetail.isSuccess()) {
+            log.info("User authenticated: {} with role: {}", userDetail.getUsername(), userDetail.getRole());
+            return ResponseEntity.ok(AuthenticationResponse.success(
+                serviceTicket, 
+                userDetail.getUsername(), 
+                userDetail.getRole()
+            ));
+        } else {
+            AuthenticationResponse authenResponse = AuthenticationResponse.failure("Authentication failed");
+            return ResponseEntity.badRequest().body(authenResponse);
+        }
+    }
+    
+    static HttpStatus statusFor(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+    
+    static String messageFor(HttpStatus status) {
+        return switch (status) {
+            case GATEWAY_TIMEOUT -> "CAS server timed out";
+            case SERVICE_UNAVAILABLE -> "Authentication service busy, retry later";
+            default -> "Internal server error";
+        };
+    }
+    
+    /**
+     * CAS single-logout callback. CAS posts a SAML LogoutRequest as the "logoutRequest" form parameter
+     * when the user logs out elsewhere; every session opened with the referenced ticket is invalidated.
+     */
+    @PostMapping("/slo")
+    public ResponseEntity<Void> singleLogout(@RequestParam("logoutRequest") String logoutRequest) {
+        String ticket = logoutRequestParser.extractSessionIndex(logoutRequest);
+        if (ticket == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        int invalidated = sessionRegistry.invalidateTicket(ticket);
+        log.info("CAS single logout invalidated {} session(s)", invalidated);
+        return ResponseEntity.ok().build();
+    }
+    
+    /**
+     * CAS proxy callback (pgtUrl). CAS calls it with pgtIou and pgtId before it answers proxyValidate,
+     * and may call it without parameters first to check that it is reachable.
+     */
+    @GetMapping("/proxy-callback")
+    public ResponseEntity<Void> proxyCallback(@RequestParam(value = "pgtIou", required = false) String pgtIou,
+                                              @RequestParam(value = "pgtId", required = false) String pgtId) {
+        if (pgtIou == null && pgtId == null) {
+            return ResponseEntity.ok().build();
+        }
+        if (!proxyGrantingTicketStorage.save(pgtIou, pgtId)) {
+            log.debug("Refused proxy callback delivery (missing or oversized values, or storage full)");
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+    
+    /**
+     * Proxy tickets for calling the given CAS-protected services on behalf of the session's user,
+     * minted concurrently from the session's PGT.
+     */
+    @PostMapping("/proxy-tickets")
+    public CompletableFuture<ResponseEntity<Map<String, CasProxyTicketResult>>> proxyTickets(
+            @Valid @RequestBody ProxyTicketRequest proxyTicketRequest, HttpServletRequest request) {
+        CasTenant tenant = tenantRegistry.resolve(request);
+        CasConfig tenantConfig = tenant.client().getCasConfig();
+        List<String> targetServices = proxyTicketRequest.getTargetServices();
+        if (!tenantConfig.isProxyEnabled()) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        if (targetServices.size() > tenantConfig.getProxyMaxTargets()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null || CasSessionRegistry.principalOf(session) == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        
+        CasTimingRecorder timings = serverTimingSampler.sample(request);
+        return casCallExecutor.submit(tenant, () -> CasTimingRecorder.callWith(timings,
+                () -> proxyTicketService.proxyTickets(session, targetServices)))
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                HttpStatus status = statusFor(e);
+                log.error("Minting proxy tickets failed with {}", status, e);
+                return ResponseEntity.status(status).<Map<String, CasProxyTicketResult>>build();
+            })
+            .thenApply(entity -> serverTimingSampler.withServerTiming(entity, timings));
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(HttpServletRequest request, HttpServletResponse response) {
+        try {
+            // Invalidate HTTP session
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                CasPrincipal principal = CasSessionRegistry.principalOf(session);
+                String username = principal != null ? principal.username() : null;
+                session.invalidate();
+                
+                if (principal != null) {
+                    // Sessions CASTGC-only requests opened for this TGT go too, rather than idling until they expire
+                    sessionRegistry.invalidateTgt(principal.tgt());
+                    // Ends the TGT's sessions on every instance, not just this one
+                    revocationBus.revoke(principal.tenantId(), principal.tgt(), username);
+                }
+                
+                // A retried login must go back to CAS after an explicit logout
+                CasTenant tenant = principal != null ? tenantRegistry.get(principal.tenantId()) : null;
+                if (tenant != null) {
+                    tenant.client().invalidateCachedLogin(username);
+                    tenant.client().invalidateServiceTickets(principal.tgt());
+                }
+                log.info("Session invalidated for user: {}", username);
+            }
+            
+            // Clear CASTGC cookie
+            Cookie castgcCookie = new Cookie("CASTGC", "");
+            castgcCookie.setMaxAge(0);
+            castgcCookie.setPath("/");
+            castgcCookie.setHttpOnly(true);
+            response.addCookie(castgcCookie);
+            
+            // Clear JSESSIONID cookie
+            Cookie jsessionCookie = new Cookie("JSESSIONID", "");
+            jsessionCookie.setMaxAge(0);
+            jsessionCookie.setPath("/");
+            jsessionCookie.setHttpOnly(true);
+            response.addCookie(jsessionCookie);
+            
+            return ResponseEntity.ok(Map.of(
+                "message", "Logout successful",
+                "action", "redirect_to_login"
+            ));
+            
+        } catch (Exception e) {
+            log.error("Error during logout", e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Logout failed",
+                "message", "Internal server error"
+            ));
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,284 @@
+package com.hust.restclient.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.core.CasClient;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+import com.hust.restclient.dto.AuthenticationResponse;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.dto.CasUserDetail;
+import com.hust.restclient.dto.LoginRequest;
+import com.hust.restclient.dto.LoginResponse;
+import com.hust.restclient.dto.ProxyTicketRequest;
+import com.hust.restclient.security.CasPrincipal;
+import com.hust.restclient.security.ReactiveCasSessionRegistry;
+import com.hust.restclient.service.CasCallExecutor;
+import com.hust.restclient.service.CasLogoutRequestParser;
+import com.hust.restclient.service.CasRestClient;
+import com.hust.restclient.service.CasRevocationBus;
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+import com.hust.restclient.service.CasTimingRecorder;
+import com.hust.restclient.service.ReactiveCasProxyTicketService;
+import com.hust.restclient.service.ServerTimingSampler;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link AuthController}. CAS calls are non-blocking, so no thread waits on CAS;
+ * only logins served from the login cache, whose password hashing is CPU-bound, run on the CAS pool.
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReactiveAuthController {
+
+    private final CasTenantRegistry tenantRegistry;
+    private final CasCallExecutor casCallExecutor;
+    private final ReactiveCasSessionRegistry sessionRegistry;
+    private final CasLogoutRequestParser logoutRequestParser;
+    private final ServerTimingSampler serverTimingSampler;
+    private final ReactiveCasProxyTicketService proxyTicketService;
+    private final ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+    private final CasRevocationBus revocationBus;
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                     ServerWebExchange exchange) {
+        log.info("Login attempt for user: {}", loginRequest.getUsername());
+
+        CasTenant tenant = tenantRegistry.resolve(exchange);
+        CasRestClient client = tenant.client();
+        CasTimingRecorder timings = serverTimingSampler.sample(exchange);
+        String username = loginRequest.getUsername();
+        String password = loginRequest.getPassword();
+        Mono<CasLoginResult> login = client.isLoginCacheEnabled()
+            ? Mono.fromFuture(() -> casCallExecutor.submit(tenant,
+                () -> CasTimingRecorder.callWith(timings, () -> client.performCasLogin(username, password)),
+                client::discardLogin))
+            // A login that completes after a timeout or a cancelled request has its TGT destroyed
+            : Mono.fromFuture(() -> casCallExecutor.withTimeout(CasTimingRecorder.callWith(timings,
+                    () -> client.performCasLoginAsync(username, password)), client::discardLogin));
+
+        return login
+            .flatMap(result -> exchange.getSession()
+                .map(session -> completeLogin(result, loginRequest, session, tenant, timings)))
+            .onErrorResume(e -> {
+                HttpStatus status = AuthController.statusFor(e);
+                log.error("Login for user {} failed with {}", username, status, e);
+                return Mono.just(ResponseEntity.status(status).body(LoginResponse.failure(
+                    AuthController.messageFor(status))));
+            })
+            .map(entity -> serverTimingSampler.withServerTiming(entity, timings));
+    }
+
+    private ResponseEntity<LoginResponse> completeLogin(CasLoginResult result, LoginRequest loginRequest,
+                                                        WebSession session, CasTenant tenant,
+                                                        CasTimingRecorder timings) {
+        if (!result.isSuccess()) {
+            return ResponseEntity.badRequest().body(LoginResponse.failure(result.getMessage()));
+        }
+
+        CasUserDetail userDetail = result.getUserDetail();
+        String actualRole = userDetail != null && userDetail.getRole() != null ? userDetail.getRole() : "USER";
+
+        long sessionStart = System.nanoTime();
+        sessionRegistry.register(session, new CasPrincipal(
+            loginRequest.getUsername(),
+            actualRole,
+            CasClient.tgtOf(result.getCastgcCookie()),
+            result.getServiceTicket(),
+            tenant.id(),
+            userDetail != null ? userDetail.getProxyGrantingTicket() : null
+        ));
+        if (timings != null) {
+            timings.add(CasTimingRecorder.Leg.SESSION, System.nanoTime() - sessionStart);
+        }
+
+        log.info("User {} logged in successfully with role: {}, session created: {}",
+                loginRequest.getUsername(), actualRole, session.getId());
+        return ResponseEntity.ok()
+            .header(HttpHeaders.SET_COOKIE, result.getCastgcCookie())
+            .body(LoginResponse.success(result.getServiceTicket()));
+    }
+
+    @PostMapping("authen")
+    public Mono<ResponseEntity<AuthenticationResponse>> authenticate(ServerWebExchange exchange) {
+        HttpCookie castgc = exchange.getRequest().getCookies().getFirst("CASTGC");
+        if (castgc == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+
+        String tgt = castgc.getValue();
+        if (revocationBus.isRevoked(tgt)) {
+            return Mono.just(ResponseEntity.badRequest().body(AuthenticationResponse.failure("Invalid session")));
+        }
+        CasRestClient client = tenantRegistry.resolve(exchange).client();
+        CasTimingRecorder timings = serverTimingSampler.sample(exchange);
+        return Mono.fromFuture(() -> CasTimingRecorder.callWith(timings, () -> client.authenticateTgtAsync(tgt)))
+            .map(authentication -> {
+                CasUserDetail userDetail = authentication.userDetail();
+                if (authentication.serviceTicket() == null) {
+                    // CAS no longer knows the TGT
+                    return ResponseEntity.badRequest().body(AuthenticationResponse.failure("Invalid session"));
+                }
+                if (!userDetail.isSuccess()) {
+                    return ResponseEntity.badRequest().body(AuthenticationResponse.failure("Authentication failed"));
+                }
+                log.info("User authenticated: {} with role: {}", userDetail.getUsername(), userDetail.getRole());
+                return ResponseEntity.ok(AuthenticationResponse.success(
+                    authentication.serviceTicket(), userDetail.getUsername(), userDetail.getRole()));
+            })
+            .timeout(asyncTimeout(client))
+            .onErrorResume(e -> {
+                HttpStatus status = AuthController.statusFor(e);
+                log.error("Authenticating the user failed with {}", status, e);
+                return Mono.just(ResponseEntity.status(status).body(AuthenticationResponse.failure(
+                    AuthController.messageFor(status))));
+            })
+            .map(entity -> serverTimingSampler.withServerTiming(entity, timings));
+    }
+
+    /**
+     * CAS single-logout callback; see {@link AuthController#singleLogout}. WebFlux does not bind
+     * form fields to @RequestParam, so the LogoutRequest is read from the form data.
+     */
+    @PostMapping("/slo")
+    public Mono<ResponseEntity<Void>> singleLogout(ServerWebExchange exchange) {
+        return exchange.getFormData().map(form -> {
+            String logoutRequest = form.getFirst("logoutRequest");
+            String ticket = logoutRequest != null ? logoutRequestParser.extractSessionIndex(logoutRequest) : null;
+            if (ticket == null) {
+                return ResponseEntity.badRequest().<Void>build();
+            }
+
+            int invalidated = sessionRegistry.invalidateTicket(ticket);
+            log.info("CAS single logout invalidated {} session(s)", invalidated);
+            return ResponseEntity.ok().<Void>build();
+        });
+    }
+
+    /**
+     * CAS proxy callback (pgtUrl); see {@link AuthController#proxyCallback}.
+     */
+    @GetMapping("/proxy-callback")
+    public ResponseEntity<Void> proxyCallback(@RequestParam(value = "pgtIou", required = false) String pgtIou,
+                                              @RequestParam(value = "pgtId", required = false) String pgtId) {
+        if (pgtIou == null && pgtId == null) {
+            return ResponseEntity.ok().build();
+        }
+        if (!proxyGrantingTicketStorage.save(pgtIou, pgtId)) {
+            log.debug("Refused proxy callback delivery (missing or oversized values, or storage full)");
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Proxy tickets for calling the given CAS-protected services on behalf of the session's user,
+     * minted concurrently from the session's PGT.
+     */
+    @PostMapping("/proxy-tickets")
+    public Mono<ResponseEntity<Map<String, CasProxyTicketResult>>> proxyTickets(
+            @Valid @RequestBody ProxyTicketRequest proxyTicketRequest, ServerWebExchange exchange) {
+        CasRestClient client = tenantRegistry.resolve(exchange).client();
+        CasConfig tenantConfig = client.getCasConfig();
+        List<String> targetServices = proxyTicketRequest.getTargetServices();
+        if (!tenantConfig.isProxyEnabled()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        if (targetServices.size() > tenantConfig.getProxyMaxTargets()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        CasTimingRecorder timings = serverTimingSampler.sample(exchange);
+        return exchange.getSession().flatMap(session -> {
+            if (ReactiveCasSessionRegistry.principalOf(session) == null) {
+                return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+            }
+            return Mono.fromFuture(() -> CasTimingRecorder.callWith(timings,
+                    () -> proxyTicketService.proxyTickets(session, targetServices)))
+                .timeout(asyncTimeout(client))
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    HttpStatus status = AuthController.statusFor(e);
+                    log.error("Minting proxy tickets failed with {}", status, e);
+                    return Mono.just(ResponseEntity.status(status).build());
+                })
+                .map(entity -> serverTimingSampler.withServerTiming(entity, timings));
+        });
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Map<String, String>>> logout(ServerWebExchange exchange) {
+        // Logout is not authenticated here, so a CASTGC-only client has no session to find the TGT in
+        HttpCookie castgc = exchange.getRequest().getCookies().getFirst("CASTGC");
+        if (castgc != null) {
+            CasTenant tenant = tenantRegistry.resolve(exchange);
+            tenant.client().invalidateServiceTickets(castgc.getValue());
+            sessionRegistry.invalidateTgt(castgc.getValue());
+            revocationBus.revoke(tenant.id(), castgc.getValue(), null);
+        }
+        return exchange.getSession()
+            .flatMap(session -> {
+                CasPrincipal principal = ReactiveCasSessionRegistry.principalOf(session);
+                if (principal != null) {
+                    sessionRegistry.unregister(session);
+                    // Sessions CASTGC-only requests opened for this TGT go too, rather than idling until they expire
+                    sessionRegistry.invalidateTgt(principal.tgt());
+                    // Ends the TGT's sessions on every instance, not just this one
+                    revocationBus.revoke(principal.tenantId(), principal.tgt(), principal.username());
+                    // A retried login must go back to CAS after an explicit logout
+                    CasTenant tenant = tenantRegistry.get(principal.tenantId());
+                    if (tenant != null) {
+                        tenant.client().invalidateCachedLogin(principal.username());
+                        tenant.client().invalidateServiceTickets(principal.tgt());
+                    }
+                    log.info("Session invalidated for user: {}", principal.username());
+                }
+                // Also expires the session cookie
+                return session.invalidate();
+            })
+            .then(Mono.fromSupplier(() -> {
+                exchange.getResponse().addCookie(ResponseCookie.from("CASTGC", "")
+                    .maxAge(0)
+                    .path("/")
+                    .httpOnly(true)
+                    .build());
+                return ResponseEntity.ok(Map.of(
+                    "message", "Logout successful",
+                    "action", "redirect_to_login"
+                ));
+            }));
+    }
+
+    private static Duration asyncTimeout(CasRestClient client) {
+        return Duration.ofMillis(client.getCasConfig().getAsyncTimeoutMillis());
+    }
+}
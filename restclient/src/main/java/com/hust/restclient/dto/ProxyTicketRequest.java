@@ -0,0 +1,13 @@
+package com.hust.restclient.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class ProxyTicketRequest {
+    @NotEmpty(message = "At least one target service is required")
+    private List<@NotBlank String> targetServices;
+}
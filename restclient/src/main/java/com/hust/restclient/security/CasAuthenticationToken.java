@@ -0,0 +1,36 @@
+package com.hust.restclient.security;
+
+import java.util.Collection;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Authentication of a CAS user carrying the {@link RoleRegistry} mask of its roles next to the usual authorities.
+ */
+public class CasAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final String username;
+    private final long roleMask;
+
+    public CasAuthenticationToken(String username, long roleMask, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.username = username;
+        this.roleMask = roleMask;
+        setAuthenticated(true);
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return username;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hust.restclient.security;
+
+import java.io.Serializable;
+
+/**
+ * Everything a session needs to know about its CAS login, stored as one session attribute
+ * instead of one attribute (and one map entry) per field.
+ * @param proxyGrantingTicket PGT for minting proxy tickets, null until CAS delivered one
+ */
+public record CasPrincipal(String username, String role, String tgt, String serviceTicket, String tenantId,
+                           String proxyGrantingTicket) implements Serializable {
+
+    /** Object header plus six references */
+    private static final long SHALLOW_BYTES = 40;
+    /** String header, hash and byte[] header; content is one byte per char for Latin-1 strings */
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    /**
+     * Rough retained heap size of this principal, used for the session memory budget.
+     */
+    public long estimatedBytes() {
+        return SHALLOW_BYTES + stringBytes(username) + stringBytes(role) + stringBytes(tgt)
+            + stringBytes(serviceTicket) + stringBytes(tenantId) + stringBytes(proxyGrantingTicket);
+    }
+
+    public CasPrincipal withProxyGrantingTicket(String pgt) {
+        return new CasPrincipal(username, role, tgt, serviceTicket, tenantId, pgt);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+}
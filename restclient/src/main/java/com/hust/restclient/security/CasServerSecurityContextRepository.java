@@ -0,0 +1,141 @@
+package com.hust.restclient.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpCookie;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
+
+import com.hust.restclient.dto.CasUserDetail;
+import com.hust.restclient.service.CasRestClient;
+import com.hust.restclient.service.CasRevocationBus;
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+import com.hust.restclient.service.CasTimingRecorder;
+import com.hust.restclient.service.ServerTimingSampler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link SimpleAuthFilter}: the security context comes from the WebSession's
+ * {@link CasPrincipal}, or else from the CASTGC cookie, which is turned into a session by minting and
+ * validating a service ticket without blocking. An empty context makes the security chain answer 401.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class CasServerSecurityContextRepository implements ServerSecurityContextRepository {
+
+    /** Spring Security subscribes to load() more than once per exchange; CAS must only be asked once */
+    private static final String CONTEXT_ATTRIBUTE = CasServerSecurityContextRepository.class.getName() + ".CONTEXT";
+
+    private final CasTenantRegistry tenantRegistry;
+    private final ReactiveCasSessionRegistry sessionRegistry;
+    private final ServerTimingSampler serverTimingSampler;
+    private final RoleRegistry roleRegistry;
+    private final CasRevocationBus revocationBus;
+
+    public CasServerSecurityContextRepository(CasTenantRegistry tenantRegistry,
+                                              ReactiveCasSessionRegistry sessionRegistry,
+                                              ServerTimingSampler serverTimingSampler, RoleRegistry roleRegistry,
+                                              CasRevocationBus revocationBus) {
+        this.tenantRegistry = tenantRegistry;
+        this.sessionRegistry = sessionRegistry;
+        this.serverTimingSampler = serverTimingSampler;
+        this.roleRegistry = roleRegistry;
+        this.revocationBus = revocationBus;
+    }
+
+    @Override
+    public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+        // Sessions are written by the login endpoint and by load() itself
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<SecurityContext> load(ServerWebExchange exchange) {
+        Mono<SecurityContext> context = exchange.getAttribute(CONTEXT_ATTRIBUTE);
+        if (context == null) {
+            context = loadContext(exchange).cache();
+            exchange.getAttributes().put(CONTEXT_ATTRIBUTE, context);
+        }
+        return context;
+    }
+
+    private Mono<SecurityContext> loadContext(ServerWebExchange exchange) {
+        CasTenant tenant = tenantRegistry.resolve(exchange);
+        // Shared with the controller; endpoints timed by their controller get their single header from it
+        CasTimingRecorder timings = serverTimingSampler.sample(exchange);
+        boolean writeTimings = timings != null
+            && !serverTimingSampler.isTimedByController(exchange.getRequest().getPath().value());
+
+        return exchange.getSession().flatMap(session -> {
+            // Step 1: Check session first (fast)
+            long sessionStart = System.nanoTime();
+            CasPrincipal principal = ReactiveCasSessionRegistry.principalOf(session);
+            // Logged out here or on another instance
+            if (principal != null && revocationBus.isRevoked(principal.tgt())) {
+                sessionRegistry.unregister(session);
+                principal = null;
+            }
+            // A session is only valid for the tenant that created it
+            if (principal != null && principal.role() != null && tenant.id().equals(principal.tenantId())) {
+                if (timings != null) {
+                    timings.add(CasTimingRecorder.Leg.SESSION, System.nanoTime() - sessionStart);
+                }
+                if (writeTimings) {
+                    serverTimingSampler.writeTo(exchange.getResponse(), timings);
+                }
+                log.debug("User {} authenticated via SESSION", principal.username());
+                return Mono.just(contextOf(principal.username(), principal.role()));
+            }
+
+            // Step 2: No session - check CASTGC cookie and validate with CAS
+            HttpCookie castgc = exchange.getRequest().getCookies().getFirst("CASTGC");
+            if (castgc == null || castgc.getValue().isEmpty() || revocationBus.isRevoked(castgc.getValue())) {
+                return Mono.empty();
+            }
+            return authenticateWithTgt(session, castgc.getValue(), tenant, timings)
+                .doOnNext(context -> {
+                    if (writeTimings) {
+                        serverTimingSampler.writeTo(exchange.getResponse(), timings);
+                    }
+                });
+        });
+    }
+
+    private Mono<SecurityContext> authenticateWithTgt(WebSession session, String tgt, CasTenant tenant,
+                                                      CasTimingRecorder timings) {
+        CasRestClient casRestClient = tenant.client();
+
+        // Service ticket (pre-minted when the ticket pool has one) and its validation
+        return Mono.fromFuture(() -> CasTimingRecorder.callWith(timings, () -> casRestClient.authenticateTgtAsync(tgt)))
+            .filter(authentication -> authentication.serviceTicket() != null && authentication.userDetail().isSuccess())
+            .map(authentication -> {
+                CasUserDetail userDetail = authentication.userDetail();
+                long sessionStart = System.nanoTime();
+                sessionRegistry.register(session, new CasPrincipal(
+                    userDetail.getUsername(), userDetail.getRole(), tgt, authentication.serviceTicket(), tenant.id(),
+                    userDetail.getProxyGrantingTicket()));
+                if (timings != null) {
+                    timings.add(CasTimingRecorder.Leg.SESSION, System.nanoTime() - sessionStart);
+                }
+                log.debug("User {} authenticated via CAS and session created", userDetail.getUsername());
+                return contextOf(userDetail.getUsername(), userDetail.getRole());
+            })
+            .onErrorResume(e -> {
+                log.warn("CAS validation failed: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private SecurityContext contextOf(String username, String role) {
+        // Role bits are resolved here once so URL checks are a mask AND
+        return new SecurityContextImpl(
+            new CasAuthenticationToken(username, roleRegistry.maskOf(role), roleRegistry.authoritiesOf(role)));
+    }
+}
@@ -0,0 +1,327 @@
+package com.hust.restclient.security;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import com.hust.restclient.config.CasConfig;
+
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionAttributeListener;
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps track of live HTTP sessions and indexes them by the CAS TGT, service ticket and user
+ * of the {@link CasPrincipal} stored in the session. Also bounds the session footprint:
+ * at most cas.session.max-per-user sessions per user (oldest evicted first) and at most
+ * cas.session.max-memory-bytes of estimated session heap (least recently used evicted first).
+ * Recency is a per-session timestamp written without locking, so the LRU order is approximate.
+ * Registered with the servlet container automatically because it is a listener bean.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class CasSessionRegistry implements CasSessions, HttpSessionListener, HttpSessionAttributeListener {
+
+    public static final String PRINCIPAL_ATTRIBUTE = "cas_principal";
+
+    /** Rough heap cost of a container session with one attribute, excluding the principal itself */
+    static final long SESSION_OVERHEAD_BYTES = 600;
+
+    private final CasConfig casConfig;
+
+    private final Map<String, HttpSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionIdsByTgt = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionIdsByServiceTicket = new ConcurrentHashMap<>();
+    /** tenant:username -> session ids, oldest first; deques are only touched inside compute */
+    private final Map<String, Deque<String>> sessionIdsByUser = new ConcurrentHashMap<>();
+
+    /** Authenticated session id -> estimated bytes and last use */
+    private final Map<String, TrackedSession> tracked = new ConcurrentHashMap<>();
+    /** Held only while evicting over the memory limit, never on the request path */
+    private final Object evictionLock = new Object();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final LongAdder perUserEvictions = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder();
+
+    @Override
+    public void sessionCreated(HttpSessionEvent event) {
+        HttpSession session = event.getSession();
+        sessions.put(session.getId(), session);
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        HttpSession session = event.getSession();
+        sessions.remove(session.getId());
+        try {
+            unindex(principalOf(session), session.getId());
+        } catch (IllegalStateException e) {
+            // Attributes already gone - attributeRemoved has cleaned up the index
+        }
+    }
+
+    @Override
+    public void attributeAdded(HttpSessionBindingEvent event) {
+        if (PRINCIPAL_ATTRIBUTE.equals(event.getName())) {
+            index(event.getValue(), event.getSession().getId());
+        }
+    }
+
+    @Override
+    public void attributeReplaced(HttpSessionBindingEvent event) {
+        if (PRINCIPAL_ATTRIBUTE.equals(event.getName())) {
+            // event.getValue() is the old value on replace
+            String sessionId = event.getSession().getId();
+            unindex(event.getValue(), sessionId);
+            index(event.getSession().getAttribute(PRINCIPAL_ATTRIBUTE), sessionId);
+        }
+    }
+
+    @Override
+    public void attributeRemoved(HttpSessionBindingEvent event) {
+        if (PRINCIPAL_ATTRIBUTE.equals(event.getName())) {
+            unindex(event.getValue(), event.getSession().getId());
+        }
+    }
+
+    /**
+     * @return the principal stored in the session, or null if it is not authenticated
+     */
+    public static CasPrincipal principalOf(HttpSession session) {
+        Object principal = session.getAttribute(PRINCIPAL_ATTRIBUTE);
+        return principal instanceof CasPrincipal casPrincipal ? casPrincipal : null;
+    }
+
+    /**
+     * Mark the session as recently used for LRU eviction.
+     */
+    public void touch(String sessionId) {
+        TrackedSession session = tracked.get(sessionId);
+        if (session != null) {
+            session.lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public List<String> activeTgts() {
+        return new ArrayList<>(sessionIdsByTgt.keySet());
+    }
+
+    @Override
+    public String tenantIdForTgt(String tgt) {
+        Set<String> sessionIds = sessionIdsByTgt.get(tgt);
+        if (sessionIds == null) {
+            return null;
+        }
+        for (String sessionId : sessionIds) {
+            HttpSession session = sessions.get(sessionId);
+            if (session == null) {
+                continue;
+            }
+            try {
+                CasPrincipal principal = principalOf(session);
+                if (principal != null) {
+                    return principal.tenantId();
+                }
+            } catch (IllegalStateException e) {
+                // Invalidated concurrently, try the next one
+            }
+        }
+        return null;
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("sessions", sessions.size());
+        snapshot.put("authenticatedSessions", tracked.size());
+        snapshot.put("users", sessionIdsByUser.size());
+        snapshot.put("estimatedBytes", estimatedBytes.get());
+        snapshot.put("maxMemoryBytes", casConfig.getSessionMaxMemoryBytes());
+        snapshot.put("maxSessionsPerUser", casConfig.getSessionMaxPerUser());
+        snapshot.put("perUserEvictions", perUserEvictions.sum());
+        snapshot.put("memoryEvictions", memoryEvictions.sum());
+        return snapshot;
+    }
+
+    @Override
+    public int invalidateTgt(String tgt) {
+        return invalidateAll(sessionIdsByTgt.remove(tgt));
+    }
+
+    @Override
+    public int invalidateTicket(String ticket) {
+        Set<String> sessionIds = sessionIdsByServiceTicket.remove(ticket);
+        if (sessionIds == null) {
+            sessionIds = sessionIdsByTgt.remove(ticket);
+        }
+        return invalidateAll(sessionIds);
+    }
+
+    private int invalidateAll(Iterable<String> sessionIds) {
+        if (sessionIds == null) {
+            return 0;
+        }
+
+        int invalidated = 0;
+        for (String sessionId : sessionIds) {
+            if (invalidate(sessionId)) {
+                invalidated++;
+            }
+        }
+        log.debug("Invalidated {} session(s)", invalidated);
+        return invalidated;
+    }
+
+    private boolean invalidate(String sessionId) {
+        HttpSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        try {
+            session.invalidate();
+            return true;
+        } catch (IllegalStateException e) {
+            // Session expired concurrently
+            return false;
+        }
+    }
+
+    private void index(Object value, String sessionId) {
+        if (!(value instanceof CasPrincipal principal)) {
+            return;
+        }
+        addToIndex(sessionIdsByTgt, principal.tgt(), sessionId);
+        addToIndex(sessionIdsByServiceTicket, principal.serviceTicket(), sessionId);
+
+        List<String> evicted = new ArrayList<>();
+        int maxPerUser = casConfig.getSessionMaxPerUser();
+        sessionIdsByUser.compute(userKey(principal), (key, ids) -> {
+            Deque<String> result = ids != null ? ids : new ArrayDeque<>();
+            result.remove(sessionId);
+            result.addLast(sessionId);
+            while (maxPerUser > 0 && result.size() > maxPerUser) {
+                evicted.add(result.pollFirst());
+            }
+            return result;
+        });
+        perUserEvictions.add(evicted.size());
+
+        long bytes = SESSION_OVERHEAD_BYTES + principal.estimatedBytes();
+        TrackedSession previous = tracked.put(sessionId, new TrackedSession(bytes, System.nanoTime()));
+        estimatedBytes.addAndGet(bytes - (previous != null ? previous.bytes : 0L));
+        long maxBytes = casConfig.getSessionMaxMemoryBytes();
+        if (maxBytes > 0 && estimatedBytes.get() > maxBytes) {
+            evictLeastRecentlyUsed(maxBytes, sessionId, evicted);
+        }
+
+        // Invalidate outside the locks: it calls back into attributeRemoved
+        if (!evicted.isEmpty()) {
+            log.info("Evicting {} session(s) over the per-user or memory limit", evicted.size());
+            invalidateAll(evicted);
+        }
+    }
+
+    private void unindex(Object value, String sessionId) {
+        if (!(value instanceof CasPrincipal principal)) {
+            return;
+        }
+        removeFromIndex(sessionIdsByTgt, principal.tgt(), sessionId);
+        removeFromIndex(sessionIdsByServiceTicket, principal.serviceTicket(), sessionId);
+        sessionIdsByUser.computeIfPresent(userKey(principal), (key, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+        TrackedSession session = tracked.remove(sessionId);
+        if (session != null) {
+            estimatedBytes.addAndGet(-session.bytes);
+        }
+    }
+
+    /**
+     * Drop the least recently used sessions, except the one being indexed, until the estimate fits maxBytes.
+     * Sorting every tracked session is fine here: it only happens once the budget is exceeded.
+     */
+    private void evictLeastRecentlyUsed(long maxBytes, String keptSessionId, List<String> evicted) {
+        synchronized (evictionLock) {
+            if (estimatedBytes.get() <= maxBytes) {
+                return;
+            }
+            // Timestamps are copied first: sorting on values that requests keep changing is unsafe
+            List<LastUse> byLastUse = new ArrayList<>(tracked.size());
+            tracked.forEach((id, session) -> byLastUse.add(new LastUse(id, session, session.lastUsedNanos)));
+            byLastUse.sort(Comparator.comparingLong(LastUse::nanos));
+            for (LastUse candidate : byLastUse) {
+                if (estimatedBytes.get() <= maxBytes) {
+                    break;
+                }
+                // Conditional remove: a concurrent unindex already subtracted this session
+                if (!candidate.sessionId().equals(keptSessionId)
+                        && tracked.remove(candidate.sessionId(), candidate.session())) {
+                    estimatedBytes.addAndGet(-candidate.session().bytes);
+                    evicted.add(candidate.sessionId());
+                    memoryEvictions.increment();
+                }
+            }
+        }
+    }
+
+    private static String userKey(CasPrincipal principal) {
+        return principal.tenantId() + ':' + principal.username();
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index, String ticket, String sessionId) {
+        if (ticket != null) {
+            index.compute(ticket, (k, ids) -> {
+                Set<String> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                result.add(sessionId);
+                return result;
+            });
+        }
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String ticket, String sessionId) {
+        if (ticket != null) {
+            index.computeIfPresent(ticket, (k, ids) -> {
+                ids.remove(sessionId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private record LastUse(String sessionId, TrackedSession session, long nanos) {
+    }
+
+    private static final class TrackedSession {
+
+        final long bytes;
+        /** Written by every request without a lock; the order it gives is approximate */
+        volatile long lastUsedNanos;
+
+        TrackedSession(long bytes, long lastUsedNanos) {
+            this.bytes = bytes;
+            this.lastUsedNanos = lastUsedNanos;
+        }
+    }
+}
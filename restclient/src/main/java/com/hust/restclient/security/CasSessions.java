@@ -0,0 +1,36 @@
+package com.hust.restclient.security;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live CAS-authenticated sessions, whichever web stack holds them: {@link CasSessionRegistry} for
+ * servlet HttpSessions, {@link ReactiveCasSessionRegistry} for WebFlux WebSessions.
+ */
+public interface CasSessions {
+
+    /**
+     * Snapshot of the TGTs that currently back at least one session.
+     */
+    List<String> activeTgts();
+
+    /**
+     * @return the tenant id stored in a session backed by this TGT, or null if none is known
+     */
+    String tenantIdForTgt(String tgt);
+
+    /**
+     * Invalidate every session that was authenticated with the given TGT.
+     * @return number of sessions invalidated
+     */
+    int invalidateTgt(String tgt);
+
+    /**
+     * Invalidate the sessions a CAS single-logout ticket refers to.
+     * CAS sends the service ticket as SessionIndex; a TGT is accepted as well.
+     * @return number of sessions invalidated
+     */
+    int invalidateTicket(String ticket);
+
+    Map<String, Object> snapshot();
+}
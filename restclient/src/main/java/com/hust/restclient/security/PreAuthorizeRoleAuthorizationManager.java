@@ -0,0 +1,107 @@
+package com.hust.restclient.security;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code @PreAuthorize} without per-call SpEL: the expression of each method is parsed once and cached.
+ * hasRole('X') and hasAnyRole('X', 'Y') become a {@link RoleMaskAuthorizationManager}; any other
+ * expression is left to Spring's SpEL-based manager, so existing annotations keep working.
+ */
+@Slf4j
+public class PreAuthorizeRoleAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Pattern ROLE_EXPRESSION = Pattern.compile("\\s*(hasRole|hasAnyRole)\\s*\\((.*)\\)\\s*");
+    private static final Pattern ROLE_ARGUMENT = Pattern.compile("\\s*'([^']+)'\\s*");
+
+    private final RoleRegistry roleRegistry;
+    private final PreAuthorizeAuthorizationManager expressionManager = new PreAuthorizeAuthorizationManager();
+    private final Map<Method, AuthorizationManager<MethodInvocation>> managersByMethod = new ConcurrentHashMap<>();
+
+    public PreAuthorizeRoleAuthorizationManager(RoleRegistry roleRegistry, ApplicationContext applicationContext) {
+        this.roleRegistry = roleRegistry;
+        this.expressionManager.setApplicationContext(applicationContext);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return managerFor(invocation).authorize(authentication, invocation);
+    }
+
+    /**
+     * Still abstract in {@link AuthorizationManager}; Spring Security calls {@link #authorize} instead.
+     */
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        AuthorizationResult result = authorize(authentication, invocation);
+        return result instanceof AuthorizationDecision decision ? decision : new AuthorizationDecision(result.isGranted());
+    }
+
+    private AuthorizationManager<MethodInvocation> managerFor(MethodInvocation invocation) {
+        AuthorizationManager<MethodInvocation> manager = managersByMethod.get(invocation.getMethod());
+        if (manager == null) {
+            manager = managersByMethod.computeIfAbsent(invocation.getMethod(), this::managerFor);
+        }
+        return manager;
+    }
+
+    private AuthorizationManager<MethodInvocation> managerFor(Method method) {
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return expressionManager;
+        }
+
+        String[] roles = parseRoles(preAuthorize.value());
+        if (roles == null) {
+            log.debug("@PreAuthorize(\"{}\") on {} is not a plain role check, evaluating it with SpEL",
+                preAuthorize.value(), method);
+            return expressionManager;
+        }
+        return RoleMaskAuthorizationManager.hasAnyRole(roleRegistry, roles);
+    }
+
+    /**
+     * @return the roles of a hasRole / hasAnyRole expression, or null for anything else
+     */
+    static String[] parseRoles(String expression) {
+        Matcher matcher = ROLE_EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String[] arguments = matcher.group(2).split(",", -1);
+        if (matcher.group(1).equals("hasRole") && arguments.length != 1) {
+            return null;
+        }
+        List<String> roles = new ArrayList<>(arguments.length);
+        for (String argument : arguments) {
+            Matcher role = ROLE_ARGUMENT.matcher(argument);
+            if (!role.matches()) {
+                return null;
+            }
+            roles.add(role.group(1));
+        }
+        return roles.toArray(String[]::new);
+    }
+}
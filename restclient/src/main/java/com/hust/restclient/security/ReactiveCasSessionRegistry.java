@@ -0,0 +1,246 @@
+package com.hust.restclient.security;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.WebSession;
+import org.springframework.web.server.session.InMemoryWebSessionStore;
+
+import com.hust.restclient.config.CasConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * WebFlux counterpart of {@link CasSessionRegistry}: indexes the WebSessions holding a {@link CasPrincipal}
+ * by TGT, service ticket and user, for single logout, TGT revalidation and the per-user session cap.
+ * WebSessions have no listeners, so sessions are registered explicitly on login and expired ones
+ * are dropped from the index by a periodic sweep of the session store.
+ * The store itself is capped at cas.session.reactive.max-sessions.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCasSessionRegistry implements CasSessions {
+
+    static final Duration SESSION_MAX_IDLE = Duration.ofMinutes(30);
+    /** A registered session may not be in the store until its response is committed */
+    private static final long SAVE_GRACE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private record Registration(CasPrincipal principal, long registeredAtNanos) {
+    }
+
+    private final CasConfig casConfig;
+    private final InMemoryWebSessionStore sessionStore;
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionIdsByTgt = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionIdsByServiceTicket = new ConcurrentHashMap<>();
+    /** tenant:username -> session ids, oldest first; deques are only touched inside compute */
+    private final Map<String, Deque<String>> sessionIdsByUser = new ConcurrentHashMap<>();
+    private final LongAdder perUserEvictions = new LongAdder();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    public ReactiveCasSessionRegistry(CasConfig casConfig, InMemoryWebSessionStore sessionStore) {
+        this.casConfig = casConfig;
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * @return the principal stored in the session, or null if it is not authenticated
+     */
+    public static CasPrincipal principalOf(WebSession session) {
+        Object principal = session.getAttribute(CasSessionRegistry.PRINCIPAL_ATTRIBUTE);
+        return principal instanceof CasPrincipal casPrincipal ? casPrincipal : null;
+    }
+
+    /**
+     * Store the principal in the session (replacing any previous one) and index the session.
+     */
+    public void register(WebSession session, CasPrincipal principal) {
+        String sessionId = session.getId();
+        session.getAttributes().put(CasSessionRegistry.PRINCIPAL_ATTRIBUTE, principal);
+        session.setMaxIdleTime(SESSION_MAX_IDLE);
+
+        Registration previous = registrations.put(sessionId, new Registration(principal, System.nanoTime()));
+        if (previous != null) {
+            unindex(previous.principal(), sessionId);
+        }
+        index(principal, sessionId);
+        sweepIfDue();
+    }
+
+    /**
+     * Forget the session's principal, e.g. on logout; the caller invalidates the session itself.
+     */
+    public void unregister(WebSession session) {
+        session.getAttributes().remove(CasSessionRegistry.PRINCIPAL_ATTRIBUTE);
+        forget(session.getId());
+    }
+
+    @Override
+    public List<String> activeTgts() {
+        sweepIfDue();
+        return new ArrayList<>(sessionIdsByTgt.keySet());
+    }
+
+    @Override
+    public String tenantIdForTgt(String tgt) {
+        Set<String> sessionIds = sessionIdsByTgt.get(tgt);
+        if (sessionIds == null) {
+            return null;
+        }
+        for (String sessionId : sessionIds) {
+            Registration registration = registrations.get(sessionId);
+            if (registration != null) {
+                return registration.principal().tenantId();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int invalidateTgt(String tgt) {
+        return invalidateAll(sessionIdsByTgt.remove(tgt));
+    }
+
+    @Override
+    public int invalidateTicket(String ticket) {
+        Set<String> sessionIds = sessionIdsByServiceTicket.remove(ticket);
+        if (sessionIds == null) {
+            sessionIds = sessionIdsByTgt.remove(ticket);
+        }
+        return invalidateAll(sessionIds);
+    }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("sessions", sessionStore.getSessions().size());
+        snapshot.put("authenticatedSessions", registrations.size());
+        snapshot.put("users", sessionIdsByUser.size());
+        snapshot.put("maxSessions", sessionStore.getMaxSessions());
+        snapshot.put("maxSessionsPerUser", casConfig.getSessionMaxPerUser());
+        snapshot.put("perUserEvictions", perUserEvictions.sum());
+        return snapshot;
+    }
+
+    private int invalidateAll(Collection<String> sessionIds) {
+        if (sessionIds == null) {
+            return 0;
+        }
+
+        int invalidated = 0;
+        for (String sessionId : List.copyOf(sessionIds)) {
+            if (forget(sessionId)) {
+                invalidated++;
+            }
+            // In-memory removal completes synchronously; subscribing keeps this off any blocking API
+            sessionStore.removeSession(sessionId).subscribe();
+        }
+        log.debug("Invalidated {} session(s)", invalidated);
+        return invalidated;
+    }
+
+    private boolean forget(String sessionId) {
+        Registration registration = registrations.remove(sessionId);
+        if (registration == null) {
+            return false;
+        }
+        unindex(registration.principal(), sessionId);
+        return true;
+    }
+
+    private void index(CasPrincipal principal, String sessionId) {
+        addToIndex(sessionIdsByTgt, principal.tgt(), sessionId);
+        addToIndex(sessionIdsByServiceTicket, principal.serviceTicket(), sessionId);
+
+        List<String> evicted = new ArrayList<>();
+        int maxPerUser = casConfig.getSessionMaxPerUser();
+        sessionIdsByUser.compute(userKey(principal), (key, ids) -> {
+            Deque<String> result = ids != null ? ids : new ArrayDeque<>();
+            result.remove(sessionId);
+            result.addLast(sessionId);
+            while (maxPerUser > 0 && result.size() > maxPerUser) {
+                evicted.add(result.pollFirst());
+            }
+            return result;
+        });
+
+        if (!evicted.isEmpty()) {
+            perUserEvictions.add(evicted.size());
+            log.info("Evicting {} session(s) over the per-user limit", evicted.size());
+            invalidateAll(evicted);
+        }
+    }
+
+    private void unindex(CasPrincipal principal, String sessionId) {
+        removeFromIndex(sessionIdsByTgt, principal.tgt(), sessionId);
+        removeFromIndex(sessionIdsByServiceTicket, principal.serviceTicket(), sessionId);
+        sessionIdsByUser.computeIfPresent(userKey(principal), (key, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Drop registrations whose session expired or left the store.
+     */
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(lastSweep, now)) {
+            return;
+        }
+        Map<String, WebSession> live = sessionStore.getSessions();
+        int dropped = 0;
+        for (Map.Entry<String, Registration> entry : registrations.entrySet()) {
+            WebSession session = live.get(entry.getKey());
+            boolean gone = session == null
+                ? now - entry.getValue().registeredAtNanos() > SAVE_GRACE_NANOS
+                : session.isExpired();
+            if (gone && forget(entry.getKey())) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.debug("Dropped {} expired session(s) from the index", dropped);
+        }
+    }
+
+    private static String userKey(CasPrincipal principal) {
+        return principal.tenantId() + ':' + principal.username();
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index, String ticket, String sessionId) {
+        if (ticket != null) {
+            index.compute(ticket, (k, ids) -> {
+                Set<String> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                result.add(sessionId);
+                return result;
+            });
+        }
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String ticket, String sessionId) {
+        if (ticket != null) {
+            index.computeIfPresent(ticket, (k, ids) -> {
+                ids.remove(sessionId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.hust.restclient.security;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link TenantResolutionFilter}: resolves the CAS tenant (Host header first,
+ * then path prefix) into an exchange attribute and strips the tenant's path prefix from the request.
+ * Ordered ahead of Spring Security's WebFilterChainProxy.
+ */
+public class ReactiveTenantResolutionFilter implements WebFilter, Ordered {
+
+    private final CasTenantRegistry tenantRegistry;
+
+    public ReactiveTenantResolutionFilter(CasTenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        CasTenant tenant = tenantRegistry.resolveByHost(exchange.getRequest().getURI().getHost());
+        if (tenant == null) {
+            String contextPath = exchange.getRequest().getPath().contextPath().value();
+            String path = exchange.getRequest().getPath().pathWithinApplication().value();
+            CasTenant prefixed = tenantRegistry.resolveByPath(path);
+            if (prefixed != null) {
+                String routedPath = path.substring(prefixed.pathPrefix().length());
+                ServerWebExchange routed = exchange.mutate()
+                    .request(request -> request.path(contextPath + (routedPath.isEmpty() ? "/" : routedPath)))
+                    .build();
+                routed.getAttributes().put(CasTenantRegistry.TENANT_ATTRIBUTE, prefixed);
+                return chain.filter(routed);
+            }
+            tenant = tenantRegistry.defaultTenant();
+        }
+
+        exchange.getAttributes().put(CasTenantRegistry.TENANT_ATTRIBUTE, tenant);
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hust.restclient.security;
+
+import java.util.function.Supplier;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Grants access when the authentication holds any of a fixed set of roles, by AND-ing role masks.
+ * For a {@link CasAuthenticationToken} that is one field read, no authority scan and no SpEL.
+ * Serves both the servlet and the WebFlux security chain.
+ */
+public final class RoleMaskAuthorizationManager<T> implements AuthorizationManager<T>, ReactiveAuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final RoleRegistry roleRegistry;
+    private final long requiredMask;
+
+    private RoleMaskAuthorizationManager(RoleRegistry roleRegistry, long requiredMask) {
+        this.roleRegistry = roleRegistry;
+        this.requiredMask = requiredMask;
+    }
+
+    public static <T> RoleMaskAuthorizationManager<T> hasRole(RoleRegistry roleRegistry, String role) {
+        return hasAnyRole(roleRegistry, role);
+    }
+
+    public static <T> RoleMaskAuthorizationManager<T> hasAnyRole(RoleRegistry roleRegistry, String... roles) {
+        return new RoleMaskAuthorizationManager<>(roleRegistry, roleRegistry.maskOf(roles));
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, T object) {
+        return decide(authentication.get());
+    }
+
+    /**
+     * Still abstract in {@link AuthorizationManager}; Spring Security calls {@link #authorize} instead.
+     */
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, T object) {
+        return decide(authentication.get());
+    }
+
+    @Override
+    public Mono<AuthorizationResult> authorize(Mono<Authentication> authentication, T object) {
+        return authentication.<AuthorizationResult>map(this::decide).defaultIfEmpty(DENIED);
+    }
+
+    /**
+     * Still abstract in {@link ReactiveAuthorizationManager}; Spring Security calls {@link #authorize} instead.
+     */
+    @Deprecated
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, T object) {
+        return authentication.map(this::decide).defaultIfEmpty(DENIED);
+    }
+
+    private AuthorizationDecision decide(Authentication authentication) {
+        return (roleMaskOf(authentication) & requiredMask) != 0L ? GRANTED : DENIED;
+    }
+
+    private long roleMaskOf(Authentication authentication) {
+        if (authentication instanceof CasAuthenticationToken token) {
+            return token.getRoleMask();
+        }
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return 0L;
+        }
+        return roleRegistry.maskOf(authentication.getAuthorities());
+    }
+}
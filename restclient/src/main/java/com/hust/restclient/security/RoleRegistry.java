@@ -0,0 +1,87 @@
+package com.hust.restclient.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives every CAS role name one bit of a {@code long}, so authorization is a single AND on a mask
+ * computed once at authentication time. Bits are handed out on first sight of a role, whether it comes
+ * from CAS or from an authorization rule. A role past the 64th gets no bit and never matches.
+ */
+@Slf4j
+@Component
+// Needed by the method security advisor, which is created before regular beans
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class RoleRegistry {
+
+    static final String ROLE_PREFIX = "ROLE_";
+    private static final int MAX_ROLES = Long.SIZE;
+
+    private final Map<String, Long> bitByRole = new ConcurrentHashMap<>();
+    /** Authorities of a single role, shared by every token of that role instead of built per request */
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
+    /**
+     * @return the bit of this role (with or without the ROLE_ prefix), 0 for null or when all bits are taken
+     */
+    public long maskOf(String role) {
+        if (role == null) {
+            return 0L;
+        }
+        String name = role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role;
+        Long bit = bitByRole.get(name);
+        return bit != null ? bit : register(name);
+    }
+
+    public long maskOf(String... roles) {
+        long mask = 0L;
+        for (String role : roles) {
+            mask |= maskOf(role);
+        }
+        return mask;
+    }
+
+    /**
+     * Mask of an authentication that was not built by {@link SimpleAuthFilter}, e.g. a test user.
+     */
+    public long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                mask |= maskOf(name);
+            }
+        }
+        return mask;
+    }
+
+    public List<GrantedAuthority> authoritiesOf(String role) {
+        return authoritiesByRole.computeIfAbsent(String.valueOf(role),
+            name -> List.of(new SimpleGrantedAuthority(ROLE_PREFIX + name)));
+    }
+
+    private synchronized long register(String name) {
+        Long existing = bitByRole.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (bitByRole.size() >= MAX_ROLES) {
+            log.warn("No role bit left for role {}, it will never be granted access", name);
+            return 0L;
+        }
+        long bit = 1L << bitByRole.size();
+        bitByRole.put(name, bit);
+        log.debug("Role {} mapped to bit {}", name, Long.numberOfTrailingZeros(bit));
+        return bit;
+    }
+}
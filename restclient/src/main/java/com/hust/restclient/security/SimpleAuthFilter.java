@@ -0,0 +1,168 @@
+package com.hust.restclient.security;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.hust.restclient.dto.CasUserDetail;
+import com.hust.restclient.service.CasRestClient;
+import com.hust.restclient.service.CasRevocationBus;
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+import com.hust.restclient.service.CasTimingRecorder;
+import com.hust.restclient.service.ServerTimingSampler;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SimpleAuthFilter extends OncePerRequestFilter {
+
+    private final CasTenantRegistry tenantRegistry;
+    private final CasSessionRegistry sessionRegistry;
+    private final ServerTimingSampler serverTimingSampler;
+    private final RoleRegistry roleRegistry;
+    private final CasRevocationBus revocationBus;
+
+    public SimpleAuthFilter(CasTenantRegistry tenantRegistry, CasSessionRegistry sessionRegistry,
+                            ServerTimingSampler serverTimingSampler, RoleRegistry roleRegistry,
+                            CasRevocationBus revocationBus) {
+        this.tenantRegistry = tenantRegistry;
+        this.sessionRegistry = sessionRegistry;
+        this.serverTimingSampler = serverTimingSampler;
+        this.roleRegistry = roleRegistry;
+        this.revocationBus = revocationBus;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+                                  FilterChain filterChain) throws ServletException, IOException {
+        
+        String requestURI = request.getRequestURI();
+        
+        // Skip filter for login, CAS single-logout and proxy callbacks, public endpoints and health probes
+        if (requestURI.startsWith("/api/auth/login") || requestURI.startsWith("/api/auth/slo")
+                || requestURI.startsWith("/api/auth/proxy-callback")
+                || requestURI.startsWith("/public/") || requestURI.startsWith("/actuator/health")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CasTenant tenant = tenantRegistry.resolve(request);
+        // Shared with the controller; endpoints timed by their controller get their single header from it
+        CasTimingRecorder timings = serverTimingSampler.sample(request);
+        boolean writeTimings = timings != null && !serverTimingSampler.isTimedByController(requestURI);
+
+        // Step 1: Check session first (fast)
+        long sessionStart = System.nanoTime();
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            CasPrincipal principal = CasSessionRegistry.principalOf(session);
+            // Logged out here or on another instance
+            if (principal != null && revocationBus.isRevoked(principal.tgt())) {
+                session.invalidate();
+                principal = null;
+            }
+            
+            // A session is only valid for the tenant that created it
+            if (principal != null && principal.role() != null && tenant.id().equals(principal.tenantId())) {
+                // Session exists - use it
+                String username = principal.username();
+                setAuthentication(username, principal.role());
+                sessionRegistry.touch(session.getId());
+                if (timings != null) {
+                    timings.add(CasTimingRecorder.Leg.SESSION, System.nanoTime() - sessionStart);
+                }
+                if (writeTimings) {
+                    serverTimingSampler.writeTo(response, timings);
+                }
+                log.debug("User {} authenticated via SESSION", username);
+                filterChain.doFilter(request, response);
+                return;
+            }
+        }
+
+        // Step 2: No session - check CASTGC cookie and validate with CAS
+        String castgc = getCastgcCookie(request);
+        if (castgc != null && !revocationBus.isRevoked(castgc)) {
+            try {
+                CasRestClient casRestClient = tenant.client();
+                
+                // Service ticket (pre-minted when the ticket pool has one) and its validation
+                CasRestClient.TgtAuthentication authentication = CasTimingRecorder.callWith(timings,
+                    () -> casRestClient.authenticateTgt(castgc));
+                String serviceTicket = authentication.serviceTicket();
+                
+                if (serviceTicket != null) {
+                    CasUserDetail userDetail = authentication.userDetail();
+                    
+                    if (userDetail.isSuccess()) {
+                        // Create new session
+                        long newSessionStart = System.nanoTime();
+                        HttpSession newSession = request.getSession(true);
+                        newSession.setAttribute(CasSessionRegistry.PRINCIPAL_ATTRIBUTE, new CasPrincipal(
+                            userDetail.getUsername(), userDetail.getRole(), castgc, serviceTicket, tenant.id(),
+                            userDetail.getProxyGrantingTicket()));
+                        newSession.setMaxInactiveInterval(30 * 60); // 30 minutes
+                        if (timings != null) {
+                            timings.add(CasTimingRecorder.Leg.SESSION, System.nanoTime() - newSessionStart);
+                        }
+                        if (writeTimings) {
+                            serverTimingSampler.writeTo(response, timings);
+                        }
+                        
+                        setAuthentication(userDetail.getUsername(), userDetail.getRole());
+                        log.debug("User {} authenticated via CAS and session created", userDetail.getUsername());
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                }
+            } catch (RejectedExecutionException e) {
+                // Bulkhead full: CAS is overloaded, not the credentials wrong
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.getWriter().write("{\"error\":\"Authentication service busy, retry later\"}");
+                return;
+            } catch (Exception e) {
+                log.warn("CAS validation failed: {}", e.getMessage());
+            }
+        }
+
+        // Step 3: No authentication - return 401
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.getWriter().write("{\"error\":\"Authentication required\"}");
+    }
+
+    private String getCastgcCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            return Arrays.stream(cookies)
+                    .filter(c -> "CASTGC".equals(c.getName()))
+                    .map(Cookie::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    private void setAuthentication(String username, String role) {
+        // Role bits are resolved here once so URL and method checks are a mask AND
+        CasAuthenticationToken auth = new CasAuthenticationToken(
+            username,
+            roleRegistry.maskOf(role),
+            roleRegistry.authoritiesOf(role)
+        );
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+}
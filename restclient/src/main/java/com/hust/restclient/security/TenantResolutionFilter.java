@@ -0,0 +1,49 @@
+package com.hust.restclient.security;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Resolves the CAS tenant of each request (Host header first, then path prefix) and stores it
+ * as a request attribute. Requests routed by path prefix are forwarded with the prefix stripped,
+ * so /hr/api/auth/login reaches the same controller as /api/auth/login.
+ * Registered ahead of Spring Security in WebConfig.
+ */
+public class TenantResolutionFilter extends OncePerRequestFilter {
+
+    private final CasTenantRegistry tenantRegistry;
+
+    public TenantResolutionFilter(CasTenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        CasTenant tenant = tenantRegistry.resolveByHost(request.getServerName());
+        if (tenant == null) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            CasTenant prefixed = tenantRegistry.resolveByPath(path);
+            if (prefixed != null) {
+                request.setAttribute(CasTenantRegistry.TENANT_ATTRIBUTE, prefixed);
+                String forwardPath = path.substring(prefixed.pathPrefix().length());
+                request.getRequestDispatcher(forwardPath.isEmpty() ? "/" : forwardPath).forward(request, response);
+                return;
+            }
+            tenant = tenantRegistry.defaultTenant();
+        }
+
+        request.setAttribute(CasTenantRegistry.TENANT_ATTRIBUTE, tenant);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,141 @@
+package com.hust.restclient.service;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.hust.restclient.core.CasExchangeInterceptor.CasExchange;
+
+/**
+ * Caps the number of in-flight CAS calls of one tenant and counts what goes through it,
+ * so one tenant's slow CAS server cannot take every CAS thread of the application.
+ */
+public class CasBulkhead {
+
+    private final String tenantId;
+    private final int maxConcurrency;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final CasRollingWindow window;
+
+    public CasBulkhead(String tenantId, int maxConcurrency, long maxWaitMillis, int windowSeconds) {
+        this.tenantId = tenantId;
+        this.maxConcurrency = maxConcurrency;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrency);
+        this.window = new CasRollingWindow(windowSeconds);
+    }
+
+    /**
+     * Run one CAS HTTP exchange inside the bulkhead.
+     * A 4xx answer still counts as a healthy call - CAS responded, it just said no; 5xx and I/O errors are failures.
+     * @throws CasBulkheadFullException if no permit frees up within the configured wait
+     */
+    public <T> T call(CasExchange<T> exchange) throws IOException, InterruptedException {
+        if (!acquire()) {
+            rejections.increment();
+            window.recordRejection();
+            throw new CasBulkheadFullException(tenantId);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = exchange.execute();
+            failed = isFailure(result);
+            return result;
+        } finally {
+            release(start, failed);
+        }
+    }
+
+    /**
+     * Asynchronous variant for event-loop callers: never waits for a permit, the permit is held until
+     * the exchange completes.
+     * @return the exchange, or a future failed with CasBulkheadFullException if no permit is free right now
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> exchange) {
+        if (!permits.tryAcquire()) {
+            rejections.increment();
+            window.recordRejection();
+            return CompletableFuture.failedFuture(new CasBulkheadFullException(tenantId));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> pending;
+        try {
+            pending = exchange.get();
+        } catch (RuntimeException e) {
+            release(start, true);
+            throw e;
+        }
+        return pending.whenComplete((result, error) -> release(start, error != null || isFailure(result)));
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Share of the permits currently held, 0.0 - 1.0.
+     */
+    public double saturation() {
+        return (double) (maxConcurrency - permits.availablePermits()) / maxConcurrency;
+    }
+
+    /**
+     * Calls of the last cas.health.window-seconds.
+     */
+    public CasRollingWindow.Stats recentStats() {
+        return window.stats();
+    }
+
+    public Map<String, Object> snapshot() {
+        long callCount = calls.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("tenant", tenantId);
+        snapshot.put("maxConcurrency", maxConcurrency);
+        snapshot.put("inFlight", maxConcurrency - permits.availablePermits());
+        snapshot.put("calls", callCount);
+        snapshot.put("failures", failures.sum());
+        snapshot.put("rejections", rejections.sum());
+        snapshot.put("meanLatencyMs", callCount == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / callCount);
+        return snapshot;
+    }
+
+    private static boolean isFailure(Object result) {
+        return result instanceof HttpResponse<?> response && response.statusCode() >= 500;
+    }
+
+    private void release(long startNanos, boolean failed) {
+        permits.release();
+        long elapsed = System.nanoTime() - startNanos;
+        calls.increment();
+        totalNanos.add(elapsed);
+        window.recordCall(elapsed, failed);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    private boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        try {
+            return permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.hust.restclient.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a tenant already has its maximum number of CAS calls in flight.
+ * Extends RejectedExecutionException so callers map it to 503 like a saturated CAS pool.
+ */
+public class CasBulkheadFullException extends RejectedExecutionException {
+
+    public CasBulkheadFullException(String tenantId) {
+        super("Too many concurrent CAS calls for tenant " + tenantId);
+    }
+}
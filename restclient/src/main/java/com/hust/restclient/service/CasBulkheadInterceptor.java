@@ -0,0 +1,79 @@
+package com.hust.restclient.service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import com.hust.restclient.core.CasExchangeInterceptor;
+import com.hust.restclient.core.CasLeg;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Puts every CAS exchange of the core client through the tenant's {@link CasBulkhead} and records
+ * each step in the request's {@link CasTimingRecorder}, also when the client runs a step on another thread.
+ */
+@RequiredArgsConstructor
+class CasBulkheadInterceptor implements CasExchangeInterceptor {
+
+    private final CasBulkhead bulkhead;
+
+    @Override
+    public <T> T intercept(CasLeg leg, CasExchange<T> exchange) throws IOException, InterruptedException {
+        long start = CasTimingRecorder.start();
+        try {
+            // Parsing does no I/O and must not take a bulkhead permit
+            return leg == CasLeg.PARSE ? exchange.execute() : bulkhead.call(exchange);
+        } finally {
+            CasTimingRecorder.Leg timed = timedLeg(leg);
+            if (timed != null) {
+                CasTimingRecorder.record(timed, start);
+            }
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> interceptAsync(CasLeg leg, Supplier<CompletableFuture<T>> exchange) {
+        // The exchange completes on another thread, so the recorder is captured here
+        CasTimingRecorder timings = CasTimingRecorder.current();
+        long start = System.nanoTime();
+        CompletableFuture<T> pending = leg == CasLeg.PARSE ? exchange.get() : bulkhead.callAsync(exchange);
+        CasTimingRecorder.Leg timed = timedLeg(leg);
+        if (timings == null || timed == null) {
+            return pending;
+        }
+        return pending.whenComplete((result, error) -> timings.add(timed, System.nanoTime() - start));
+    }
+
+    @Override
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        CasTimingRecorder timings = CasTimingRecorder.current();
+        return () -> CasTimingRecorder.callWith(timings, task);
+    }
+
+    @Override
+    public Executor propagate(Executor executor) {
+        CasTimingRecorder timings = CasTimingRecorder.current();
+        if (timings == null) {
+            return executor;
+        }
+        return task -> executor.execute(() -> CasTimingRecorder.callWith(timings, () -> {
+            task.run();
+            return null;
+        }));
+    }
+
+    private static CasTimingRecorder.Leg timedLeg(CasLeg leg) {
+        return switch (leg) {
+            case TGT -> CasTimingRecorder.Leg.TGT;
+            case USERS -> CasTimingRecorder.Leg.USERS;
+            case ST -> CasTimingRecorder.Leg.ST;
+            case VALIDATE -> CasTimingRecorder.Leg.VALIDATE;
+            case PROXY -> CasTimingRecorder.Leg.PROXY;
+            case PARSE -> CasTimingRecorder.Leg.PARSE;
+            // Background checks are not part of any request
+            case CHECK_TGT, DESTROY_TGT -> null;
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.hust.restclient.service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.hust.restclient.config.CasConfig;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded pools that run blocking CAS exchanges off the servlet container threads, one per tenant so a
+ * slow CAS server can only exhaust its own tenant's threads. A full queue fails fast with
+ * RejectedExecutionException and a slow exchange fails with TimeoutException, so callers can map them to 503 / 504.
+ */
+@Slf4j
+@Component
+public class CasCallExecutor {
+
+    private final CasConfig casConfig;
+    private final Map<String, ThreadPoolExecutor> executorsByTenant = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final int queueCapacity;
+
+    public CasCallExecutor(CasConfig casConfig) {
+        this.casConfig = casConfig;
+        this.timeoutMillis = casConfig.getAsyncTimeoutMillis();
+        this.queueCapacity = casConfig.getAsyncQueueCapacity();
+        log.info("CAS call executor: {} threads and queue capacity {} per tenant, timeout {}ms",
+            casConfig.getAsyncPoolSize(), queueCapacity, timeoutMillis);
+    }
+
+    /**
+     * Run a CAS exchange on the tenant's pool. The returned future completes exceptionally with
+     * RejectedExecutionException when the pool is saturated or TimeoutException when the exchange is too slow.
+     */
+    public <T> CompletableFuture<T> submit(CasTenant tenant, Supplier<T> casWork) {
+        return submit(tenant, casWork, lateResult -> { });
+    }
+
+    /**
+     * As {@link #submit(CasTenant, Supplier)}, handing the result of an exchange that completes after its caller
+     * timed out to onLateResult, e.g. to release what CAS created for nobody.
+     */
+    public <T> CompletableFuture<T> submit(CasTenant tenant, Supplier<T> casWork, Consumer<? super T> onLateResult) {
+        try {
+            return withTimeout(CompletableFuture.supplyAsync(casWork, executorOf(tenant.id())), onLateResult);
+        } catch (RejectedExecutionException e) {
+            log.warn("CAS call executor of tenant {} saturated, rejecting request", tenant.id());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * The caller's view of a CAS exchange already running elsewhere: it fails with TimeoutException
+     * after the async timeout, while the exchange itself runs on and its late result goes to onLateResult.
+     */
+    public <T> CompletableFuture<T> withTimeout(CompletableFuture<T> casWork, Consumer<? super T> onLateResult) {
+        CompletableFuture<T> caller = new CompletableFuture<T>().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        casWork.whenComplete((result, error) -> {
+            if (error != null) {
+                caller.completeExceptionally(error);
+            } else if (!caller.complete(result) && result != null) {
+                onLateResult.accept(result);
+            }
+        });
+        return caller;
+    }
+
+    /**
+     * Busy threads plus queued exchanges over everything the tenant's pool can hold before rejecting, 0.0 - 1.0.
+     */
+    public double saturation(CasTenant tenant) {
+        ThreadPoolExecutor executor = executorsByTenant.get(tenant.id());
+        return executor == null ? 0.0 : saturationOf(executor);
+    }
+
+    /**
+     * Saturation of the busiest tenant pool.
+     */
+    public double saturation() {
+        return executorsByTenant.values().stream().mapToDouble(this::saturationOf).max().orElse(0.0);
+    }
+
+    public int activeCount() {
+        return executorsByTenant.values().stream().mapToInt(ThreadPoolExecutor::getActiveCount).sum();
+    }
+
+    public int queuedCount() {
+        return executorsByTenant.values().stream().mapToInt(executor -> executor.getQueue().size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorsByTenant.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private ThreadPoolExecutor executorOf(String tenantId) {
+        return executorsByTenant.computeIfAbsent(tenantId, id -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                casConfig.getAsyncPoolSize(),
+                casConfig.getAsyncPoolSize(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("cas-call-" + id + "-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    private double saturationOf(ThreadPoolExecutor executor) {
+        return (double) (executor.getActiveCount() + executor.getQueue().size())
+            / (executor.getMaximumPoolSize() + queueCapacity);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hust.restclient.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import com.hust.restclient.config.CasConfig;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Health of the CAS dependency as seen by real traffic: rolling mean latency and error rate of each
+ * tenant's CAS calls, saturation of its bulkhead and of its CAS call pool. Makes no CAS calls itself.
+ * Reports DEGRADED past the cas.health.degraded.* thresholds (not ready, see application.properties)
+ * and OUT_OF_SERVICE past cas.health.out-of-service.*; the worst tenant decides.
+ */
+@Component
+@RequiredArgsConstructor
+public class CasHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "CAS calls are slow, failing or queueing");
+
+    private final CasConfig casConfig;
+    private final CasTenantRegistry tenantRegistry;
+    private final CasCallExecutor casCallExecutor;
+
+    @Override
+    public Health health() {
+        Status worst = Status.UP;
+
+        Map<String, Object> tenants = new LinkedHashMap<>();
+        for (CasTenant tenant : tenantRegistry.all()) {
+            CasBulkhead bulkhead = tenant.client().getBulkhead();
+            CasRollingWindow.Stats stats = bulkhead.recentStats();
+            double saturation = bulkhead.saturation();
+            double executorSaturation = casCallExecutor.saturation(tenant);
+
+            Status status = worse(statusOf(saturation), statusOf(executorSaturation));
+            // Too few calls say nothing about latency or errors
+            if (stats.calls() + stats.rejections() >= casConfig.getHealthMinCalls()) {
+                status = worse(status, statusOf(stats));
+            }
+            worst = worse(worst, status);
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", status.getCode());
+            details.put("calls", stats.calls());
+            details.put("failures", stats.failures());
+            details.put("rejections", stats.rejections());
+            details.put("errorRate", stats.errorRate());
+            details.put("meanLatencyMs", stats.meanLatencyMs());
+            details.put("maxLatencyMs", stats.maxLatencyMs());
+            details.put("saturation", saturation);
+            details.put("executorSaturation", executorSaturation);
+            tenants.put(tenant.id(), details);
+        }
+
+        Map<String, Object> executor = new LinkedHashMap<>();
+        executor.put("active", casCallExecutor.activeCount());
+        executor.put("queued", casCallExecutor.queuedCount());
+        executor.put("saturation", casCallExecutor.saturation());
+
+        return Health.status(worst)
+            .withDetail("windowSeconds", casConfig.getHealthWindowSeconds())
+            .withDetail("tenants", tenants)
+            .withDetail("executor", executor)
+            .build();
+    }
+
+    private Status statusOf(CasRollingWindow.Stats stats) {
+        if (stats.meanLatencyMs() >= casConfig.getHealthOutOfServiceLatencyMillis()
+                || stats.errorRate() >= casConfig.getHealthOutOfServiceErrorRate()) {
+            return Status.OUT_OF_SERVICE;
+        }
+        if (stats.meanLatencyMs() >= casConfig.getHealthDegradedLatencyMillis()
+                || stats.errorRate() >= casConfig.getHealthDegradedErrorRate()) {
+            return DEGRADED;
+        }
+        return Status.UP;
+    }
+
+    private Status statusOf(double saturation) {
+        if (saturation >= casConfig.getHealthOutOfServiceSaturation()) {
+            return Status.OUT_OF_SERVICE;
+        }
+        if (saturation >= casConfig.getHealthDegradedSaturation()) {
+            return DEGRADED;
+        }
+        return Status.UP;
+    }
+
+    private static Status worse(Status a, Status b) {
+        return severity(b) > severity(a) ? b : a;
+    }
+
+    private static int severity(Status status) {
+        if (Status.OUT_OF_SERVICE.equals(status)) {
+            return 2;
+        }
+        return DEGRADED.equals(status) ? 1 : 0;
+    }
+}
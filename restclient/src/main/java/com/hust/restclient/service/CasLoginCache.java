@@ -0,0 +1,82 @@
+package com.hust.restclient.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import com.hust.restclient.dto.CasUserDetail;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers recently successful logins of one tenant for a few seconds, so a client re-submitting the
+ * same credentials reuses the TGT instead of running the whole CAS login again. Passwords are never
+ * stored: an entry holds a salted PBKDF2 hash that a retry must match.
+ */
+@Slf4j
+public class CasLoginCache {
+
+    /** A verified login that can be replayed while it is fresh */
+    public record CachedLogin(String tgt, CasUserDetail userDetail) {
+    }
+
+    private record Entry(String passwordHash, CachedLogin login, long expiresAtNanos) {
+    }
+
+    private final Map<String, Entry> entriesByUsername = new ConcurrentHashMap<>();
+    private final Pbkdf2PasswordEncoder passwordEncoder;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public CasLoginCache(long ttlSeconds, int hashIterations, int maxEntries) {
+        this.passwordEncoder = new Pbkdf2PasswordEncoder("", 16, hashIterations,
+            Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the cached login if one is fresh and the password matches its hash, otherwise null
+     */
+    public CachedLogin get(String username, String password) {
+        Entry entry = entriesByUsername.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            entriesByUsername.remove(username, entry);
+            return null;
+        }
+        // A different password is a miss, not a rejection: CAS decides whether it is valid
+        return passwordEncoder.matches(password, entry.passwordHash()) ? entry.login() : null;
+    }
+
+    public void put(String username, String password, String tgt, CasUserDetail userDetail) {
+        if (entriesByUsername.size() >= maxEntries && !entriesByUsername.containsKey(username)) {
+            evictExpired();
+            if (entriesByUsername.size() >= maxEntries) {
+                log.debug("Login cache full, not caching login of {}", username);
+                return;
+            }
+        }
+        entriesByUsername.put(username, new Entry(passwordEncoder.encode(password),
+            new CachedLogin(tgt, userDetail), System.nanoTime() + ttlNanos));
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            entriesByUsername.remove(username);
+        }
+    }
+
+    public int size() {
+        return entriesByUsername.size();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entriesByUsername.values().removeIf(entry -> now - entry.expiresAtNanos() >= 0);
+    }
+}
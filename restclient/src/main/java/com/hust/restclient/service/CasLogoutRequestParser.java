@@ -0,0 +1,80 @@
+package com.hust.restclient.service;
+
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Extracts the SessionIndex (the service ticket) from a CAS SAML single-logout request:
+ * <pre>
+ * &lt;samlp:LogoutRequest ...&gt;
+ *     &lt;saml:NameID&gt;@NOT_USED@&lt;/saml:NameID&gt;
+ *     &lt;samlp:SessionIndex&gt;ST-1-xxx&lt;/samlp:SessionIndex&gt;
+ * &lt;/samlp:LogoutRequest&gt;
+ * </pre>
+ * Uses StAX and stops at the first SessionIndex, so no DOM is built for the request.
+ * Requests carrying a DOCTYPE are rejected.
+ */
+@Slf4j
+@Component
+public class CasLogoutRequestParser {
+
+    private static final String SESSION_INDEX = "SessionIndex";
+
+    private final XMLInputFactory inputFactory;
+
+    public CasLogoutRequestParser() {
+        inputFactory = XMLInputFactory.newFactory();
+        // Logout requests come from the network - never resolve DTDs or external entities
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    /**
+     * @return the ticket from SessionIndex, or null if the request is malformed or has none
+     */
+    public String extractSessionIndex(String logoutRequest) {
+        if (logoutRequest == null || logoutRequest.isBlank()) {
+            return null;
+        }
+
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(new StringReader(logoutRequest));
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.DTD) {
+                    // CAS never sends a DOCTYPE; one is an entity-expansion attempt
+                    log.warn("Rejected CAS logout request with a DOCTYPE");
+                    return null;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && SESSION_INDEX.equals(reader.getLocalName())) {
+                    String ticket = reader.getElementText().trim();
+                    return ticket.isEmpty() ? null : ticket;
+                }
+            }
+            log.warn("No SessionIndex found in CAS logout request");
+            return null;
+
+        } catch (XMLStreamException e) {
+            log.warn("Malformed CAS logout request: {}", e.getMessage());
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Nothing to release for a StringReader
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hust.restclient.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.security.CasPrincipal;
+import com.hust.restclient.security.CasSessionRegistry;
+
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Proxy tickets for calling CAS-protected backends on behalf of a session's user. The session keeps
+ * the PGT from its login, so each call is one concurrent round of CAS /proxy requests; the TGT is only
+ * used again when the session has no PGT yet or CAS reports it expired.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class CasProxyTicketService {
+
+    private final CasTenantRegistry tenantRegistry;
+
+    /**
+     * @return one result per distinct target service, in the given order
+     * @throws IllegalStateException if the session is not authenticated
+     */
+    public Map<String, CasProxyTicketResult> proxyTickets(HttpSession session, List<String> targetServices) {
+        CasPrincipal principal = CasSessionRegistry.principalOf(session);
+        if (principal == null) {
+            throw new IllegalStateException("Session is not authenticated");
+        }
+        CasTenant tenant = tenantRegistry.get(principal.tenantId());
+        CasRestClient client = (tenant != null ? tenant : tenantRegistry.defaultTenant()).client();
+
+        String pgt = principal.proxyGrantingTicket();
+        if (pgt == null) {
+            pgt = renewProxyGrantingTicket(session, client, null);
+        }
+        Map<String, CasProxyTicketResult> results = new LinkedHashMap<>(client.requestProxyTickets(pgt, targetServices));
+
+        List<String> expired = results.entrySet().stream()
+            .filter(result -> result.getValue().isPgtExpired())
+            .map(Map.Entry::getKey)
+            .toList();
+        if (!expired.isEmpty() && pgt != null) {
+            // Once per call: a PGT that expires again right away points at a dead TGT
+            String renewed = renewProxyGrantingTicket(session, client, pgt);
+            if (renewed != null) {
+                results.putAll(client.requestProxyTickets(renewed, expired));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get a new PGT from the session's TGT and keep it in the session, unless a concurrent request
+     * on the same session already replaced the stale one.
+     */
+    private String renewProxyGrantingTicket(HttpSession session, CasRestClient client, String stalePgt) {
+        try {
+            CasPrincipal current = CasSessionRegistry.principalOf(session);
+            if (current == null) {
+                return null;
+            }
+            if (current.proxyGrantingTicket() != null && !current.proxyGrantingTicket().equals(stalePgt)) {
+                return current.proxyGrantingTicket();
+            }
+
+            String pgt = client.requestProxyGrantingTicket(current.tgt());
+            if (pgt == null) {
+                log.warn("Could not obtain a proxy-granting ticket for {}", current.username());
+                return null;
+            }
+            session.setAttribute(CasSessionRegistry.PRINCIPAL_ATTRIBUTE, current.withProxyGrantingTicket(pgt));
+            log.debug("Renewed proxy-granting ticket for {}", current.username());
+            return pgt;
+        } catch (IllegalStateException e) {
+            // Session invalidated meanwhile
+            return null;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.hust.restclient.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.net.ssl.SSLContext;
+
+import org.springframework.stereotype.Service;
+
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.core.CasClient;
+import com.hust.restclient.core.CasClientConfig;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+import com.hust.restclient.dto.CasAuthenResult;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.dto.CasUserDetail;
+import com.hust.restclient.dto.TgtStatus;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spring side of one tenant's CAS client: the protocol itself lives in the Spring-free {@link CasClient};
+ * this adds the bulkhead, Server-Timing legs, the login cache and the service ticket pool.
+ */
+@Slf4j
+@Service
+public class CasRestClient {
+
+    /**
+     * A CASTGC checked against CAS: serviceTicket is null when CAS refused to mint one for the TGT,
+     * otherwise userDetail tells whether its validation succeeded.
+     */
+    public record TgtAuthentication(String serviceTicket, CasUserDetail userDetail) {
+    }
+
+    private final CasConfig casConfig;
+    private final CasBulkhead bulkhead;
+    private final CasClient casClient;
+    /** null unless cas.login.cache.enabled */
+    private final CasLoginCache loginCache;
+    /** null unless cas.authen.ticket-pool.enabled */
+    private final CasServiceTicketPool serviceTicketPool;
+
+    public CasRestClient(CasConfig casConfig, SSLContext casSslContext,
+                         ProxyGrantingTicketStorage proxyGrantingTicketStorage) {
+        this.casConfig = casConfig;
+        this.bulkhead = new CasBulkhead(casConfig.getTenantId(), casConfig.getMaxConcurrency(),
+            casConfig.getBulkheadMaxWaitMillis(), casConfig.getHealthWindowSeconds());
+        this.casClient = new CasClient(CasClientConfig.builder()
+            .serverUrl(casConfig.getServerUrl())
+            .clientServiceUrl(casConfig.getClientServiceUrl())
+            .connectTimeout(Duration.ofMillis(casConfig.getConnectTimeoutMillis()))
+            .readTimeout(Duration.ofMillis(casConfig.getReadTimeoutMillis()))
+            .sslContext(casSslContext)
+            .loginStrategy(casConfig.getLoginStrategy())
+            .proxyCallbackUrl(casConfig.getProxyCallbackUrl())
+            .proxyGrantingTicketStorage(proxyGrantingTicketStorage)
+            .build(), new CasBulkheadInterceptor(bulkhead));
+        this.loginCache = casConfig.isLoginCacheEnabled()
+            ? new CasLoginCache(casConfig.getLoginCacheTtlSeconds(), casConfig.getLoginCacheHashIterations(),
+                casConfig.getLoginCacheMaxEntries())
+            : null;
+        this.serviceTicketPool = casConfig.isTicketPoolEnabled()
+            ? new CasServiceTicketPool(casConfig.getTicketPoolSize(), casConfig.getTicketPoolMaxAgeMillis(),
+                casConfig.getTicketPoolMaxTgts())
+            : null;
+    }
+
+    public CasConfig getCasConfig() {
+        return casConfig;
+    }
+
+    public CasBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * Step 2: Request ST (Service Ticket) using TGT
+     */
+    public String requestServiceTicket(String tgt, String service, String username, String password) {
+        return casClient.requestServiceTicket(tgt, service, username, password);
+    }
+
+    public CompletableFuture<String> requestServiceTicketAsync(String tgt, String service) {
+        return casClient.requestServiceTicketAsync(tgt, service, null, null);
+    }
+
+    /**
+     * Step 3: Validate Service Ticket
+     */
+    public CasUserDetail validateServiceTicket(String serviceTicket, String service) {
+        return casClient.validateServiceTicket(serviceTicket, service);
+    }
+
+    public CompletableFuture<CasUserDetail> validateServiceTicketAsync(String serviceTicket, String service) {
+        return casClient.validateServiceTicketAsync(serviceTicket, service);
+    }
+
+    /**
+     * Check whether a TGT is still alive on the CAS server (GET v1/tickets/{tgt}).
+     */
+    public TgtStatus checkTgt(String tgt) {
+        return casClient.checkTgt(tgt);
+    }
+
+    /**
+     * Get a fresh PGT for a live TGT: mint an ST and validate it with the proxy callback URL.
+     * @return the PGT, or null if the TGT is gone, proxying is disabled or CAS did not deliver one
+     */
+    public String requestProxyGrantingTicket(String tgt) {
+        if (!casConfig.isProxyEnabled()) {
+            return null;
+        }
+        String service = casConfig.getClientServiceUrl();
+        String serviceTicket = casClient.requestServiceTicket(tgt, service, null, null);
+        if (serviceTicket == null) {
+            return null;
+        }
+        CasUserDetail userDetail = casClient.validateServiceTicket(serviceTicket, service);
+        return userDetail.isSuccess() ? userDetail.getProxyGrantingTicket() : null;
+    }
+
+    public CompletableFuture<String> requestProxyGrantingTicketAsync(String tgt) {
+        if (!casConfig.isProxyEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String service = casConfig.getClientServiceUrl();
+        return casClient.requestServiceTicketAsync(tgt, service, null, null).thenCompose(serviceTicket ->
+            serviceTicket == null
+                ? CompletableFuture.completedFuture(null)
+                : casClient.validateServiceTicketAsync(serviceTicket, service)
+                    .thenApply(userDetail -> userDetail.isSuccess() ? userDetail.getProxyGrantingTicket() : null));
+    }
+
+    /**
+     * Mint proxy tickets for several downstream services concurrently.
+     */
+    public Map<String, CasProxyTicketResult> requestProxyTickets(String pgt, Collection<String> targetServices) {
+        return casClient.requestProxyTickets(pgt, targetServices);
+    }
+
+    public CompletableFuture<Map<String, CasProxyTicketResult>> requestProxyTicketsAsync(
+            String pgt, Collection<String> targetServices) {
+        return casClient.requestProxyTicketsAsync(pgt, targetServices);
+    }
+
+    /**
+     * Complete CAS login flow
+     */
+    public CasLoginResult performCasLogin(String username, String password) {
+        if (loginCache != null) {
+            CasLoginResult cached = performCachedLogin(username, password);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CasLoginResult result = casClient.performCasLogin(username, password);
+
+        if (loginCache != null) {
+            if (result.isSuccess()) {
+                loginCache.put(username, password, CasClient.tgtOf(result.getCastgcCookie()), result.getUserDetail());
+            } else {
+                loginCache.invalidate(username);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Non-blocking login. It bypasses the login cache, whose password hashing is blocking CPU work:
+     * when {@link #isLoginCacheEnabled()}, run {@link #performCasLogin} on a worker pool instead.
+     */
+    public CompletableFuture<CasLoginResult> performCasLoginAsync(String username, String password) {
+        return casClient.performCasLoginAsync(username, password);
+    }
+
+    public boolean isLoginCacheEnabled() {
+        return loginCache != null;
+    }
+
+    /**
+     * Forget the cached login of this user, e.g. on logout. No-op when the login cache is disabled.
+     */
+    public void invalidateCachedLogin(String username) {
+        if (loginCache != null) {
+            loginCache.invalidate(username);
+        }
+    }
+
+    /**
+     * Log out the TGT of a successful login whose caller gave up before it completed, so it is not left
+     * alive on CAS unused. A TGT the login cache holds is kept: the next login with the same credentials reuses it.
+     */
+    public void discardLogin(CasLoginResult result) {
+        if (!result.isSuccess() || loginCache != null) {
+            return;
+        }
+        String tgt = CasClient.tgtOf(result.getCastgcCookie());
+        if (tgt == null) {
+            return;
+        }
+        log.info("Destroying the TGT of a login that completed after its caller gave up");
+        CasTimingRecorder.callWithout(() -> casClient.destroyTgtAsync(tgt))
+            .exceptionally(e -> {
+                log.warn("Could not destroy the TGT of an abandoned login: {}", e.toString());
+                return false;
+            });
+    }
+
+    /**
+     * Authenticate a CASTGC: an ST for the client service URL, validated. With the service ticket pool
+     * enabled the ST is a pre-minted one when the TGT has a fresh one, saving the ST round trip, and the
+     * pool is topped up in the background after every successful validation.
+     */
+    public TgtAuthentication authenticateTgt(String tgt) {
+        String service = casConfig.getClientServiceUrl();
+        String pooled = serviceTicketPool != null ? serviceTicketPool.take(tgt) : null;
+        if (pooled != null) {
+            CasUserDetail userDetail = casClient.validateServiceTicket(pooled, service);
+            if (userDetail.isSuccess()) {
+                refillServiceTicketPool(tgt);
+                return new TgtAuthentication(pooled, userDetail);
+            }
+            // TGT destroyed or ticket expired early on CAS: drop the pool and decide with a fresh ticket
+            serviceTicketPool.invalidate(tgt);
+        }
+
+        String serviceTicket = casClient.requestServiceTicket(tgt, service, null, null);
+        if (serviceTicket == null) {
+            return new TgtAuthentication(null, null);
+        }
+        CasUserDetail userDetail = casClient.validateServiceTicket(serviceTicket, service);
+        if (userDetail.isSuccess()) {
+            refillServiceTicketPool(tgt);
+        }
+        return new TgtAuthentication(serviceTicket, userDetail);
+    }
+
+    public CompletableFuture<TgtAuthentication> authenticateTgtAsync(String tgt) {
+        String service = casConfig.getClientServiceUrl();
+        String pooled = serviceTicketPool != null ? serviceTicketPool.take(tgt) : null;
+        if (pooled != null) {
+            return casClient.validateServiceTicketAsync(pooled, service).thenCompose(userDetail -> {
+                if (userDetail.isSuccess()) {
+                    refillServiceTicketPool(tgt);
+                    return CompletableFuture.completedFuture(new TgtAuthentication(pooled, userDetail));
+                }
+                serviceTicketPool.invalidate(tgt);
+                return mintAndValidateAsync(tgt, service);
+            });
+        }
+        return mintAndValidateAsync(tgt, service);
+    }
+
+    /**
+     * Drop the pre-minted service tickets of this TGT, e.g. on logout. No-op when the pool is disabled.
+     */
+    public void invalidateServiceTickets(String tgt) {
+        if (serviceTicketPool != null) {
+            serviceTicketPool.invalidate(tgt);
+        }
+    }
+
+    /**
+     * Complete CAS authen flows
+     */
+    public CasAuthenResult performAuthen(String tgt) {
+        return casClient.performAuthen(tgt);
+    }
+
+    @PreDestroy
+    public void close() {
+        casClient.close();
+    }
+
+    private CompletableFuture<TgtAuthentication> mintAndValidateAsync(String tgt, String service) {
+        return casClient.requestServiceTicketAsync(tgt, service, null, null).thenCompose(serviceTicket -> {
+            if (serviceTicket == null) {
+                return CompletableFuture.completedFuture(new TgtAuthentication(null, null));
+            }
+            return casClient.validateServiceTicketAsync(serviceTicket, service).thenApply(userDetail -> {
+                if (userDetail.isSuccess()) {
+                    refillServiceTicketPool(tgt);
+                }
+                return new TgtAuthentication(serviceTicket, userDetail);
+            });
+        });
+    }
+
+    private void refillServiceTicketPool(String tgt) {
+        if (serviceTicketPool == null) {
+            return;
+        }
+        String service = casConfig.getClientServiceUrl();
+        // Background minting is not part of the request being timed
+        CasTimingRecorder.callWithout(() -> {
+            serviceTicketPool.refill(tgt, () -> casClient.requestServiceTicketAsync(tgt, service, null, null));
+            return null;
+        });
+    }
+
+    /**
+     * Replay a recent login with the same credentials: only a new ST is minted on the cached TGT.
+     * @return the login result, or null when there is no usable cached login
+     */
+    private CasLoginResult performCachedLogin(String username, String password) {
+        CasLoginCache.CachedLogin cached = loginCache.get(username, password);
+        if (cached == null) {
+            return null;
+        }
+        String serviceTicket = casClient.requestServiceTicket(cached.tgt(), casConfig.getClientServiceUrl(), null, null);
+        if (serviceTicket == null) {
+            // CAS no longer accepts the TGT
+            loginCache.invalidate(username);
+            return null;
+        }
+        log.info("Login of {} served from the login cache", username);
+        return CasLoginResult.success(serviceTicket, CasClient.castgcCookie(cached.tgt()), cached.userDetail());
+    }
+}
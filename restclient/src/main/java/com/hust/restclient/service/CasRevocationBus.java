@@ -0,0 +1,326 @@
+package com.hust.restclient.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.stereotype.Component;
+
+import com.hust.restclient.config.CasConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cluster-wide revocation of TGTs on logout. A revoked TGT goes into a local set that the authentication
+ * filters check on every request (one hash lookup), so sessions and CASTGC cookies of that TGT stop working
+ * here at once and on the other instances as soon as the revocation arrives, without any CAS traffic.
+ * A TGT is broadcast once, however often it is revoked, and revocations are sent in small batches
+ * over a {@link CasRevocationTransport}; only a hash of the TGT leaves the instance. Datagrams are not
+ * acknowledged, so every batch is sent {@link #SENDS_PER_BATCH} times a few milliseconds apart; receivers
+ * ignore revocations they already applied. Batches carry their send time under the HMAC and are refused
+ * once older than the revocation TTL, so a captured batch cannot revoke the TGTs again after it was forgotten.
+ */
+@Slf4j
+@Component
+public class CasRevocationBus {
+
+    /** One revocation on the wire: tenant, SHA-256 of the TGT and the user, whose cached login is dropped */
+    public record Revocation(String tenantId, String tgtHash, String username) {
+    }
+
+    private static final int MAGIC = 0x43524556;
+    private static final int MAX_REVOCATIONS_PER_BATCH = 16;
+    private static final int MAX_FIELD_LENGTH = 256;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    /** Each batch goes out this often, {@link #RESEND_INTERVAL_MILLIS} apart */
+    static final int SENDS_PER_BATCH = 3;
+    private static final long RESEND_INTERVAL_MILLIS = 20;
+
+    private final CasTenantRegistry tenantRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long batchDelayMillis;
+    private final long ttlNanos;
+    private final long ttlMillis;
+    private final SecretKeySpec macKey;
+    private final boolean ownsTransport;
+    private final CasRevocationTransport transport;
+
+    /** TGT hash -> when the revocation may be forgotten (nanoTime) */
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final Queue<Revocation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder sentBatches = new LongAdder();
+    private final LongAdder receivedRevocations = new LongAdder();
+    private final LongAdder rejectedBatches = new LongAdder();
+    private ScheduledExecutorService scheduler;
+
+    public CasRevocationBus(CasConfig casConfig, CasTenantRegistry tenantRegistry,
+                            Optional<CasRevocationTransport> transport) throws IOException {
+        this.tenantRegistry = tenantRegistry;
+        this.batchDelayMillis = casConfig.getRevocationBatchDelayMillis();
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(casConfig.getRevocationTtlSeconds());
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(casConfig.getRevocationTtlSeconds());
+        String secret = casConfig.getRevocationSharedSecret();
+        this.macKey = secret == null || secret.isEmpty()
+            ? null
+            : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.ownsTransport = transport.isEmpty() && casConfig.isRevocationEnabled();
+        this.transport = ownsTransport
+            ? new UdpRevocationTransport(
+                new InetSocketAddress(casConfig.getRevocationBindAddress(), casConfig.getRevocationPort()),
+                UdpRevocationTransport.parsePeers(casConfig.getRevocationPeers()))
+            : transport.orElse(null);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (transport == null) {
+            log.info("CAS revocation bus is local only (cas.revocation.enabled=false)");
+            return;
+        }
+        if (macKey == null) {
+            log.warn("cas.revocation.shared-secret is empty: revocation batches are not authenticated");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cas-revocation").daemon(true).factory());
+        transport.start(this::receive);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (ownsTransport) {
+            transport.close();
+        }
+    }
+
+    /**
+     * Revoke a TGT here and on every other instance, e.g. on logout.
+     */
+    public void revoke(String tenantId, String tgt, String username) {
+        if (tgt == null) {
+            return;
+        }
+        Revocation revocation = new Revocation(tenantId, tgtHash(tgt), username);
+        if (!apply(revocation) || transport == null) {
+            return;
+        }
+        pending.add(revocation);
+        if (flushScheduled.compareAndSet(false, true)) {
+            // Revocations arriving meanwhile go out in the same batch
+            scheduler.schedule(this::flush, batchDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return whether the TGT was revoked here or on another instance
+     */
+    public boolean isRevoked(String tgt) {
+        if (tgt == null || revokedUntil.isEmpty()) {
+            return false;
+        }
+        Long until = revokedUntil.get(tgtHash(tgt));
+        return until != null && System.nanoTime() - until < 0;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("revokedTgts", revokedUntil.size());
+        snapshot.put("sentBatches", sentBatches.sum());
+        snapshot.put("receivedRevocations", receivedRevocations.sum());
+        snapshot.put("rejectedBatches", rejectedBatches.sum());
+        return snapshot;
+    }
+
+    static String tgtHash(String tgt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(tgt.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<Revocation> batch = new ArrayList<>(MAX_REVOCATIONS_PER_BATCH);
+        Revocation revocation;
+        while ((revocation = pending.poll()) != null) {
+            batch.add(revocation);
+            if (batch.size() == MAX_REVOCATIONS_PER_BATCH) {
+                send(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<Revocation> batch) {
+        byte[] encoded;
+        try {
+            encoded = encode(batch);
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("Encoding {} revocation(s) failed: {}", batch.size(), e.getMessage());
+            return;
+        }
+        sentBatches.increment();
+        int revocations = batch.size();
+        sendDatagram(encoded, revocations);
+        for (int i = 1; i < SENDS_PER_BATCH; i++) {
+            scheduler.schedule(() -> sendDatagram(encoded, revocations), i * RESEND_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendDatagram(byte[] encoded, int revocations) {
+        try {
+            transport.send(encoded);
+        } catch (IOException e) {
+            log.warn("Sending {} revocation(s) failed: {}", revocations, e.getMessage());
+        }
+    }
+
+    private void receive(byte[] batch) {
+        List<Revocation> revocations;
+        try {
+            revocations = decode(batch);
+        } catch (IOException | GeneralSecurityException e) {
+            rejectedBatches.increment();
+            log.warn("Rejected a revocation batch: {}", e.getMessage());
+            return;
+        }
+        if (revocations == null) {
+            // Our own batch, looped back
+            return;
+        }
+        for (Revocation revocation : revocations) {
+            // Resent batches repeat revocations already applied
+            if (apply(revocation)) {
+                receivedRevocations.increment();
+            }
+        }
+    }
+
+    /**
+     * @return whether the TGT was not revoked yet
+     */
+    private boolean apply(Revocation revocation) {
+        long now = System.nanoTime();
+        Long previous = revokedUntil.put(revocation.tgtHash(), now + ttlNanos);
+        boolean revoked = previous == null || now - previous >= 0;
+        if (revoked) {
+            // A retried login must go back to CAS on every instance
+            CasTenant tenant = tenantRegistry.get(revocation.tenantId());
+            if (tenant != null && revocation.username() != null && !revocation.username().isEmpty()) {
+                tenant.client().invalidateCachedLogin(revocation.username());
+            }
+            log.debug("Revoked TGT {} of {}", revocation.tgtHash(), revocation.username());
+        }
+        long lastPurge = lastPurgeNanos.get();
+        if (now - lastPurge > TimeUnit.MINUTES.toNanos(1) && lastPurgeNanos.compareAndSet(lastPurge, now)) {
+            revokedUntil.values().removeIf(until -> now - until >= 0);
+        }
+        return revoked;
+    }
+
+    private byte[] encode(List<Revocation> batch) throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + batch.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeUTF(instanceId);
+        out.writeLong(System.currentTimeMillis());
+        out.writeShort(batch.size());
+        for (Revocation revocation : batch) {
+            out.writeUTF(field(revocation.tenantId()));
+            out.writeUTF(revocation.tgtHash());
+            out.writeUTF(field(revocation.username()));
+        }
+        out.flush();
+        if (macKey != null) {
+            out.write(mac().doFinal(bytes.toByteArray()));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the revocations of another instance's batch, or null for a batch sent by this instance
+     */
+    private List<Revocation> decode(byte[] batch) throws IOException, GeneralSecurityException {
+        int payloadLength = batch.length;
+        if (macKey != null) {
+            payloadLength -= MAC_LENGTH;
+            if (payloadLength <= 0 || !MessageDigest.isEqual(
+                    Arrays.copyOfRange(batch, payloadLength, batch.length),
+                    mac().doFinal(Arrays.copyOf(batch, payloadLength)))) {
+                throw new GeneralSecurityException("bad signature");
+            }
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch, 0, payloadLength));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a revocation batch");
+        }
+        if (instanceId.equals(in.readUTF())) {
+            return null;
+        }
+        // Wall clock: instances only have to agree to well within the TTL
+        long ageMillis = System.currentTimeMillis() - in.readLong();
+        if (Math.abs(ageMillis) > ttlMillis) {
+            throw new GeneralSecurityException("batch issued " + ageMillis + " ms ago, outside the revocation TTL");
+        }
+        int count = in.readUnsignedShort();
+        List<Revocation> revocations = new ArrayList<>(Math.min(count, MAX_REVOCATIONS_PER_BATCH));
+        for (int i = 0; i < count; i++) {
+            revocations.add(new Revocation(in.readUTF(), in.readUTF(), in.readUTF()));
+        }
+        return revocations;
+    }
+
+    private Mac mac() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(macKey);
+        return mac;
+    }
+
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Keeps a full batch within one datagram
+        return value.length() > MAX_FIELD_LENGTH ? value.substring(0, MAX_FIELD_LENGTH) : value;
+    }
+}
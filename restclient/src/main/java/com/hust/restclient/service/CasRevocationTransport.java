@@ -0,0 +1,25 @@
+package com.hust.restclient.service;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded revocation batches of {@link CasRevocationBus} between app instances. Declare a bean of
+ * this type to replace the built-in {@link UdpRevocationTransport}. Delivery may be best effort: a lost batch
+ * leaves the other instances' sessions of that TGT alive until they expire or are revalidated.
+ */
+public interface CasRevocationTransport extends AutoCloseable {
+
+    /**
+     * Start handing batches sent by other instances to {@code receiver}.
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    /**
+     * Send one batch to every other instance.
+     */
+    void send(byte[] batch) throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,94 @@
+package com.hust.restclient.service;
+
+/**
+ * Latency and error counts of the CAS calls made in the last N seconds, kept in one-second buckets
+ * that are reused as the window moves. Fed by real traffic only, so reading it costs no CAS call.
+ * Callers are network bound, so a single monitor is cheaper than it looks.
+ */
+public class CasRollingWindow {
+
+    /** Immutable view of the window at one point in time */
+    public record Stats(long calls, long failures, long rejections, double meanLatencyMs, double maxLatencyMs) {
+
+        /**
+         * Failed and rejected calls over everything that was attempted.
+         */
+        public double errorRate() {
+            long attempts = calls + rejections;
+            return attempts == 0 ? 0.0 : (double) (failures + rejections) / attempts;
+        }
+    }
+
+    private final int seconds;
+    private final long[] bucketSecond;
+    private final long[] calls;
+    private final long[] failures;
+    private final long[] rejections;
+    private final long[] totalNanos;
+    private final long[] maxNanos;
+
+    public CasRollingWindow(int seconds) {
+        this.seconds = seconds;
+        this.bucketSecond = new long[seconds];
+        this.calls = new long[seconds];
+        this.failures = new long[seconds];
+        this.rejections = new long[seconds];
+        this.totalNanos = new long[seconds];
+        this.maxNanos = new long[seconds];
+    }
+
+    public synchronized void recordCall(long elapsedNanos, boolean failed) {
+        int bucket = bucket(nowSecond());
+        calls[bucket]++;
+        totalNanos[bucket] += elapsedNanos;
+        maxNanos[bucket] = Math.max(maxNanos[bucket], elapsedNanos);
+        if (failed) {
+            failures[bucket]++;
+        }
+    }
+
+    public synchronized void recordRejection() {
+        rejections[bucket(nowSecond())]++;
+    }
+
+    public synchronized Stats stats() {
+        long now = nowSecond();
+        long callSum = 0;
+        long failureSum = 0;
+        long rejectionSum = 0;
+        long nanosSum = 0;
+        long nanosMax = 0;
+        for (int i = 0; i < seconds; i++) {
+            if (now - bucketSecond[i] >= seconds) {
+                continue;
+            }
+            callSum += calls[i];
+            failureSum += failures[i];
+            rejectionSum += rejections[i];
+            nanosSum += totalNanos[i];
+            nanosMax = Math.max(nanosMax, maxNanos[i]);
+        }
+        double mean = callSum == 0 ? 0.0 : nanosSum / 1_000_000.0 / callSum;
+        return new Stats(callSum, failureSum, rejectionSum, mean, nanosMax / 1_000_000.0);
+    }
+
+    /**
+     * Index of the bucket for {@code second}, cleared first if it still holds an older second.
+     */
+    private int bucket(long second) {
+        int index = (int) Math.floorMod(second, (long) seconds);
+        if (bucketSecond[index] != second) {
+            bucketSecond[index] = second;
+            calls[index] = 0;
+            failures[index] = 0;
+            rejections[index] = 0;
+            totalNanos[index] = 0;
+            maxNanos[index] = 0;
+        }
+        return index;
+    }
+
+    private static long nowSecond() {
+        return System.nanoTime() / 1_000_000_000L;
+    }
+}
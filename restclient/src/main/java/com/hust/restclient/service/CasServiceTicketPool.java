@@ -0,0 +1,142 @@
+package com.hust.restclient.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A few pre-minted service tickets per TGT for one tenant's client service URL, so an authen call only
+ * has to validate one. Each ticket is handed out at most once (taking it removes it from the queue) and is
+ * dropped once older than maxAge, which must stay well within the CAS ST lifetime. A pool is only topped up
+ * after its TGT was just validated, so nothing is minted for TGTs nobody uses any more.
+ */
+@Slf4j
+public class CasServiceTicketPool {
+
+    private record Ticket(String serviceTicket, long mintedAtNanos) {
+    }
+
+    private static final class Tickets {
+        final Queue<Ticket> queue = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean refilling = new AtomicBoolean();
+        volatile long lastRefillNanos = System.nanoTime();
+    }
+
+    private final Map<String, Tickets> ticketsByTgt = new ConcurrentHashMap<>();
+    private final int size;
+    private final long maxAgeNanos;
+    private final int maxTgts;
+    private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CasServiceTicketPool(int size, long maxAgeMillis, int maxTgts) {
+        this.size = size;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+        this.maxTgts = maxTgts;
+    }
+
+    /**
+     * @return a fresh pre-minted ST of this TGT, removed from the pool, or null if there is none
+     */
+    public String take(String tgt) {
+        Tickets tickets = ticketsByTgt.get(tgt);
+        if (tickets != null) {
+            long now = System.nanoTime();
+            Ticket ticket;
+            while ((ticket = tickets.queue.poll()) != null) {
+                if (now - ticket.mintedAtNanos() < maxAgeNanos) {
+                    hits.increment();
+                    return ticket.serviceTicket();
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Top the TGT's pool up to its size in the background; at most one refill per TGT runs at a time.
+     * @param mint requests one ST for the TGT from CAS, completing with null when CAS refuses
+     */
+    public void refill(String tgt, Supplier<CompletableFuture<String>> mint) {
+        purgeIfDue();
+        Tickets tickets = ticketsByTgt.get(tgt);
+        if (tickets == null) {
+            if (ticketsByTgt.size() >= maxTgts) {
+                log.debug("Service ticket pool full, not pooling tickets for another TGT");
+                return;
+            }
+            tickets = ticketsByTgt.computeIfAbsent(tgt, key -> new Tickets());
+        }
+        if (!tickets.refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        Tickets pool = tickets;
+        long now = System.nanoTime();
+        pool.lastRefillNanos = now;
+        pool.queue.removeIf(ticket -> now - ticket.mintedAtNanos() >= maxAgeNanos);
+        List<CompletableFuture<String>> minting = new ArrayList<>();
+        for (int i = pool.queue.size(); i < size; i++) {
+            // Aged from before the request: CAS starts the ticket's lifetime when it issues it
+            long mintedAt = System.nanoTime();
+            minting.add(mint.get().whenComplete((serviceTicket, error) -> {
+                // Not into a pool dropped meanwhile, e.g. on logout
+                if (serviceTicket != null && ticketsByTgt.get(tgt) == pool) {
+                    pool.queue.offer(new Ticket(serviceTicket, mintedAt));
+                }
+            }));
+        }
+        CompletableFuture.allOf(minting.toArray(CompletableFuture[]::new))
+            .whenComplete((ignored, error) -> {
+                pool.refilling.set(false);
+                if (error != null) {
+                    log.debug("Refilling the service ticket pool failed: {}", error.getMessage());
+                }
+            });
+    }
+
+    /**
+     * Drop the TGT's tickets, e.g. on logout or when CAS rejected one of them.
+     */
+    public void invalidate(String tgt) {
+        if (tgt != null) {
+            ticketsByTgt.remove(tgt);
+        }
+    }
+
+    public int size() {
+        return ticketsByTgt.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Forget pools whose every ticket has expired, i.e. not refilled for maxAge.
+     */
+    private void purgeIfDue() {
+        long now = System.nanoTime();
+        long lastPurge = lastPurgeNanos.get();
+        if (now - lastPurge > maxAgeNanos && lastPurgeNanos.compareAndSet(lastPurge, now)) {
+            ticketsByTgt.values().removeIf(tickets -> now - tickets.lastRefillNanos > maxAgeNanos);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hust.restclient.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.dto.TgtStatus;
+import com.hust.restclient.security.CasSessions;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically re-checks the TGTs behind active sessions and invalidates sessions whose TGT
+ * was destroyed on the CAS server (e.g. logout from another application).
+ * Runs off the request path so session-authenticated requests stay fast.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CasSessionRevalidator {
+
+    private final CasConfig casConfig;
+    private final CasTenantRegistry tenantRegistry;
+    private final CasSessions sessionRegistry;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService checkExecutor;
+
+    @PostConstruct
+    public void start() {
+        if (!casConfig.isRevalidationEnabled()) {
+            log.info("CAS session revalidation is disabled");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cas-revalidation").daemon(true).factory());
+        checkExecutor = Executors.newFixedThreadPool(casConfig.getRevalidationMaxConcurrency(),
+            Thread.ofPlatform().name("cas-revalidation-worker-", 0).daemon(true).factory());
+
+        log.info("CAS session revalidation every {}s (+ up to {}s jitter), batch size {}, max concurrency {}",
+            casConfig.getRevalidationIntervalSeconds(), casConfig.getRevalidationJitterSeconds(),
+            casConfig.getRevalidationBatchSize(), casConfig.getRevalidationMaxConcurrency());
+        scheduleNext();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Check every TGT that backs a session and invalidate the sessions of dead TGTs.
+     * @return number of sessions invalidated
+     */
+    public int revalidateAll() {
+        List<String> tgts = sessionRegistry.activeTgts();
+        if (tgts.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = casConfig.getRevalidationBatchSize();
+        int invalidated = 0;
+        for (int from = 0; from < tgts.size(); from += batchSize) {
+            List<String> batch = tgts.subList(from, Math.min(from + batchSize, tgts.size()));
+
+            List<CompletableFuture<TgtStatus>> checks = new ArrayList<>(batch.size());
+            for (String tgt : batch) {
+                // A TGT is only meaningful to the CAS server of the tenant that issued it
+                CasTenant tenant = tenantRegistry.get(sessionRegistry.tenantIdForTgt(tgt));
+                CasRestClient client = (tenant != null ? tenant : tenantRegistry.defaultTenant()).client();
+                checks.add(CompletableFuture.supplyAsync(() -> client.checkTgt(tgt), checkExecutor)
+                    .exceptionally(e -> {
+                        // e.g. the tenant's bulkhead is full: keep the sessions and check again next run
+                        log.debug("Could not check a TGT of tenant {}: {}",
+                            client.getCasConfig().getTenantId(), e.getMessage());
+                        return TgtStatus.UNKNOWN;
+                    }));
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (checks.get(i).join() == TgtStatus.INVALID) {
+                    invalidated += sessionRegistry.invalidateTgt(batch.get(i));
+                }
+            }
+        }
+
+        log.info("Revalidated {} TGT(s), invalidated {} session(s)", tgts.size(), invalidated);
+        return invalidated;
+    }
+
+    private void scheduleNext() {
+        long delayMillis = TimeUnit.SECONDS.toMillis(casConfig.getRevalidationIntervalSeconds())
+            + ThreadLocalRandom.current().nextLong(TimeUnit.SECONDS.toMillis(casConfig.getRevalidationJitterSeconds()) + 1);
+        scheduler.schedule(this::runAndReschedule, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runAndReschedule() {
+        try {
+            revalidateAll();
+        } catch (Exception e) {
+            log.error("CAS session revalidation run failed", e);
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduleNext();
+            }
+        }
+    }
+}
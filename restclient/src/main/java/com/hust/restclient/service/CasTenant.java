@@ -0,0 +1,8 @@
+package com.hust.restclient.service;
+
+/**
+ * One CAS tenant: its routing key(s) and the client bound to its CAS server.
+ * @param pathPrefix URL prefix routed to this tenant, or null when it is routed by host only
+ */
+public record CasTenant(String id, String pathPrefix, CasRestClient client) {
+}
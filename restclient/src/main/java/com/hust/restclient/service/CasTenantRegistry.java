@@ -0,0 +1,151 @@
+package com.hust.restclient.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.net.ssl.SSLContext;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.config.CasTenantProperties;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds one {@link CasRestClient} per tenant and maps incoming requests to their tenant.
+ * The top-level cas.* configuration is the default tenant; cas.tenants.* adds more, each with
+ * its own CAS client (connection pool) and bulkhead.
+ */
+@Slf4j
+@Component
+public class CasTenantRegistry {
+
+    /** Request attribute holding the resolved {@link CasTenant} */
+    public static final String TENANT_ATTRIBUTE = CasTenantRegistry.class.getName() + ".TENANT";
+
+    private final CasTenant defaultTenant;
+    private final Map<String, CasTenant> tenantsById = new LinkedHashMap<>();
+    private final Map<String, CasTenant> tenantsByHost = new HashMap<>();
+    private final List<CasTenant> prefixedTenants = new ArrayList<>();
+
+    public CasTenantRegistry(CasConfig casConfig, CasRestClient defaultClient,
+                             CasTenantProperties tenantProperties, SSLContext casSslContext,
+                             ProxyGrantingTicketStorage proxyGrantingTicketStorage) {
+        this.defaultTenant = new CasTenant(casConfig.getTenantId(), null, defaultClient);
+        tenantsById.put(defaultTenant.id(), defaultTenant);
+
+        for (Map.Entry<String, CasTenantProperties.Tenant> entry : tenantProperties.getTenants().entrySet()) {
+            String id = entry.getKey();
+            CasTenantProperties.Tenant properties = entry.getValue();
+            if (tenantsById.containsKey(id)) {
+                throw new IllegalStateException("Duplicate CAS tenant id: " + id);
+            }
+
+            CasConfig tenantConfig = casConfig.forTenant(id, properties.getServerUrl(),
+                properties.getClientServiceUrl(), properties.getMaxConcurrency());
+            CasRestClient client = new CasRestClient(tenantConfig, casSslContext, proxyGrantingTicketStorage);
+            CasTenant tenant = new CasTenant(id, normalizePrefix(properties.getPathPrefix()), client);
+            tenantsById.put(id, tenant);
+
+            for (String host : properties.getHosts()) {
+                if (tenantsByHost.putIfAbsent(host.toLowerCase(Locale.ROOT), tenant) != null) {
+                    throw new IllegalStateException("Host " + host + " is mapped to more than one CAS tenant");
+                }
+            }
+            if (tenant.pathPrefix() != null) {
+                prefixedTenants.add(tenant);
+            }
+            log.info("Registered CAS tenant {} (hosts={}, pathPrefix={}, maxConcurrency={})",
+                id, properties.getHosts(), tenant.pathPrefix(), tenantConfig.getMaxConcurrency());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // The default tenant's client is a bean and closed by the container
+        for (CasTenant tenant : tenantsById.values()) {
+            if (tenant != defaultTenant) {
+                tenant.client().close();
+            }
+        }
+    }
+
+    public CasTenant defaultTenant() {
+        return defaultTenant;
+    }
+
+    /**
+     * @return the tenant with this id, or null if unknown
+     */
+    public CasTenant get(String tenantId) {
+        return tenantId == null ? null : tenantsById.get(tenantId);
+    }
+
+    public Collection<CasTenant> all() {
+        return Collections.unmodifiableCollection(tenantsById.values());
+    }
+
+    /**
+     * Tenant of the current request: the one stored by TenantResolutionFilter, otherwise resolved from the Host header.
+     */
+    public CasTenant resolve(HttpServletRequest request) {
+        Object resolved = request.getAttribute(TENANT_ATTRIBUTE);
+        if (resolved instanceof CasTenant tenant) {
+            return tenant;
+        }
+        CasTenant byHost = resolveByHost(request.getServerName());
+        return byHost != null ? byHost : defaultTenant;
+    }
+
+    /**
+     * WebFlux variant: the tenant stored by ReactiveTenantResolutionFilter, otherwise resolved from the Host header.
+     */
+    public CasTenant resolve(ServerWebExchange exchange) {
+        Object resolved = exchange.getAttribute(TENANT_ATTRIBUTE);
+        if (resolved instanceof CasTenant tenant) {
+            return tenant;
+        }
+        CasTenant byHost = resolveByHost(exchange.getRequest().getURI().getHost());
+        return byHost != null ? byHost : defaultTenant;
+    }
+
+    /**
+     * @return the tenant mapped to this host name, or null
+     */
+    public CasTenant resolveByHost(String host) {
+        return host == null ? null : tenantsByHost.get(host.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the tenant whose path prefix starts this URI, or null
+     */
+    public CasTenant resolveByPath(String requestUri) {
+        for (CasTenant tenant : prefixedTenants) {
+            String prefix = tenant.pathPrefix();
+            if (requestUri.startsWith(prefix) && (requestUri.length() == prefix.length()
+                    || requestUri.charAt(prefix.length()) == '/')) {
+                return tenant;
+            }
+        }
+        return null;
+    }
+
+    private static String normalizePrefix(String prefix) {
+        if (prefix == null || prefix.isBlank() || prefix.equals("/")) {
+            return null;
+        }
+        String normalized = prefix.startsWith("/") ? prefix : "/" + prefix;
+        return normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+}
@@ -0,0 +1,128 @@
+package com.hust.restclient.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Per-request accumulator of CAS leg timings, rendered as a Server-Timing header value.
+ * A recorder is bound to the thread doing the CAS work; when none is bound the static
+ * helpers are no-ops, so unsampled requests pay one ThreadLocal read per leg and allocate nothing.
+ * Legs the core client runs in parallel add to the same recorder from several threads.
+ */
+public final class CasTimingRecorder {
+
+    public enum Leg {
+        TGT("cas-tgt"),
+        USERS("cas-users"),
+        ST("cas-st"),
+        VALIDATE("cas-validate"),
+        PROXY("cas-proxy"),
+        PARSE("cas-parse"),
+        SESSION("session");
+
+        private final String metricName;
+
+        Leg(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Leg[] LEGS = Leg.values();
+    private static final ThreadLocal<CasTimingRecorder> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLongArray nanos = new AtomicLongArray(LEGS.length);
+
+    /**
+     * @return start timestamp for {@link #record}, or 0 when no recorder is bound to this thread
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Add the time elapsed since {@code startNanos} to the recorder bound to this thread, if any.
+     */
+    public static void record(Leg leg, long startNanos) {
+        CasTimingRecorder recorder = CURRENT.get();
+        if (recorder != null && startNanos != 0L) {
+            recorder.add(leg, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * @return the recorder bound to this thread, or null; pass it to {@link #callWith} to time work on another thread
+     */
+    public static CasTimingRecorder current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run {@code work} with {@code recorder} bound to the current thread. A null recorder just runs the work.
+     */
+    public static <T> T callWith(CasTimingRecorder recorder, Supplier<T> work) {
+        if (recorder == null) {
+            return work.get();
+        }
+        CasTimingRecorder previous = CURRENT.get();
+        CURRENT.set(recorder);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run {@code work} with no recorder bound, e.g. background CAS calls started while serving a request.
+     */
+    public static <T> T callWithout(Supplier<T> work) {
+        CasTimingRecorder previous = CURRENT.get();
+        if (previous == null) {
+            return work.get();
+        }
+        CURRENT.remove();
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public void add(Leg leg, long elapsedNanos) {
+        nanos.addAndGet(leg.ordinal(), elapsedNanos);
+    }
+
+    /**
+     * Render recorded legs as "cas-tgt;dur=12.345, cas-st;dur=3.210" (milliseconds, microsecond precision).
+     * Legs that were not exercised are omitted.
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder(96);
+        for (Leg leg : LEGS) {
+            long elapsed = nanos.get(leg.ordinal());
+            if (elapsed == 0L) {
+                continue;
+            }
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            long micros = elapsed / 1_000;
+            long fraction = micros % 1_000;
+            header.append(leg.metricName).append(";dur=").append(micros / 1_000).append('.');
+            if (fraction < 100) {
+                header.append('0');
+            }
+            if (fraction < 10) {
+                header.append('0');
+            }
+            header.append(fraction);
+        }
+        return header.toString();
+    }
+}
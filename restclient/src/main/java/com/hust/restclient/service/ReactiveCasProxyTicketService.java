@@ -0,0 +1,95 @@
+package com.hust.restclient.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.WebSession;
+
+import com.hust.restclient.dto.CasProxyTicketResult;
+import com.hust.restclient.security.CasPrincipal;
+import com.hust.restclient.security.ReactiveCasSessionRegistry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * WebFlux counterpart of {@link CasProxyTicketService}: the same PGT reuse and one-time renewal,
+ * composed from non-blocking CAS calls.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCasProxyTicketService {
+
+    private final CasTenantRegistry tenantRegistry;
+    private final ReactiveCasSessionRegistry sessionRegistry;
+
+    /**
+     * @return one result per distinct target service, in the given order; fails with
+     *         IllegalStateException if the session is not authenticated
+     */
+    public CompletableFuture<Map<String, CasProxyTicketResult>> proxyTickets(WebSession session,
+                                                                          List<String> targetServices) {
+        CasPrincipal principal = ReactiveCasSessionRegistry.principalOf(session);
+        if (principal == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Session is not authenticated"));
+        }
+        CasTenant tenant = tenantRegistry.get(principal.tenantId());
+        CasRestClient client = (tenant != null ? tenant : tenantRegistry.defaultTenant()).client();
+
+        CompletableFuture<String> pgt = principal.proxyGrantingTicket() != null
+            ? CompletableFuture.completedFuture(principal.proxyGrantingTicket())
+            : renewProxyGrantingTicket(session, client, null);
+        return pgt.thenCompose(current -> client.requestProxyTicketsAsync(current, targetServices)
+            .thenCompose(tickets -> {
+                Map<String, CasProxyTicketResult> results = new LinkedHashMap<>(tickets);
+                List<String> expired = results.entrySet().stream()
+                    .filter(result -> result.getValue().isPgtExpired())
+                    .map(Map.Entry::getKey)
+                    .toList();
+                if (expired.isEmpty() || current == null) {
+                    return CompletableFuture.completedFuture(results);
+                }
+                // Once per call: a PGT that expires again right away points at a dead TGT
+                return renewProxyGrantingTicket(session, client, current).thenCompose(renewed -> renewed == null
+                    ? CompletableFuture.completedFuture(results)
+                    : client.requestProxyTicketsAsync(renewed, expired).thenApply(retried -> {
+                        results.putAll(retried);
+                        return results;
+                    }));
+            }));
+    }
+
+    /**
+     * Get a new PGT from the session's TGT and keep it in the session, unless a concurrent request
+     * on the same session already replaced the stale one.
+     */
+    private CompletableFuture<String> renewProxyGrantingTicket(WebSession session, CasRestClient client,
+                                                               String stalePgt) {
+        CasPrincipal current = ReactiveCasSessionRegistry.principalOf(session);
+        if (current == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (current.proxyGrantingTicket() != null && !current.proxyGrantingTicket().equals(stalePgt)) {
+            return CompletableFuture.completedFuture(current.proxyGrantingTicket());
+        }
+
+        return client.requestProxyGrantingTicketAsync(current.tgt()).thenApply(pgt -> {
+            if (pgt == null) {
+                log.warn("Could not obtain a proxy-granting ticket for {}", current.username());
+                return null;
+            }
+            // Not if the session logged out or logged in again meanwhile
+            if (ReactiveCasSessionRegistry.principalOf(session) == current) {
+                sessionRegistry.register(session, current.withProxyGrantingTicket(pgt));
+            }
+            log.debug("Renewed proxy-granting ticket for {}", current.username());
+            return pgt;
+        });
+    }
+}
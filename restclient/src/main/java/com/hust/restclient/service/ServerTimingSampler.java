@@ -0,0 +1,126 @@
+package com.hust.restclient.service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hust.restclient.config.CasConfig;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decides which auth requests carry a Server-Timing breakdown of their CAS legs.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServerTimingSampler {
+
+    private static final String TIMING_ALLOW_ORIGIN = "Timing-Allow-Origin";
+    /** The request's sampling decision, so the auth filter and the controller share one recorder */
+    private static final String RECORDER_ATTRIBUTE = ServerTimingSampler.class.getName() + ".RECORDER";
+    /** Endpoints whose controllers write the Server-Timing header themselves */
+    private static final List<String> CONTROLLER_TIMED_PATHS =
+        List.of("/api/auth/login", "/api/auth/authen", "/api/auth/proxy-tickets");
+
+    private final CasConfig casConfig;
+
+    /**
+     * @return a fresh recorder when Server-Timing is enabled and this request is sampled, otherwise null
+     */
+    public CasTimingRecorder sample() {
+        if (!casConfig.isServerTimingEnabled()) {
+            return null;
+        }
+        double rate = casConfig.getServerTimingSampleRate();
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return null;
+        }
+        return new CasTimingRecorder();
+    }
+
+    /**
+     * As {@link #sample()}, decided once per request: every later call for the same request returns the same recorder.
+     */
+    public CasTimingRecorder sample(HttpServletRequest request) {
+        return sample(request::getAttribute, request::setAttribute);
+    }
+
+    /**
+     * WebFlux variant of {@link #sample(HttpServletRequest)}.
+     */
+    public CasTimingRecorder sample(ServerWebExchange exchange) {
+        return sample(exchange::getAttribute, exchange.getAttributes()::put);
+    }
+
+    /**
+     * Whether the endpoint's controller writes the request's Server-Timing header, which an auth filter
+     * then leaves to it rather than sending a second one.
+     */
+    public boolean isTimedByController(String path) {
+        return CONTROLLER_TIMED_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    /**
+     * Copy of {@code entity} carrying the recorder's Server-Timing header, or {@code entity} itself when not sampled.
+     */
+    public <T> ResponseEntity<T> withServerTiming(ResponseEntity<T> entity, CasTimingRecorder recorder) {
+        if (recorder == null) {
+            return entity;
+        }
+        String value = recorder.toHeaderValue();
+        if (value.isEmpty()) {
+            return entity;
+        }
+        return ResponseEntity.status(entity.getStatusCode())
+            .headers(entity.getHeaders())
+            .header(CasTimingRecorder.HEADER, value)
+            .header(TIMING_ALLOW_ORIGIN, "*")
+            .body(entity.getBody());
+    }
+
+    /**
+     * Write the recorder to the response. Timing-Allow-Origin lets cross-origin RUM scripts read the values.
+     */
+    public void writeTo(HttpServletResponse response, CasTimingRecorder recorder) {
+        if (recorder == null) {
+            return;
+        }
+        String value = recorder.toHeaderValue();
+        if (!value.isEmpty()) {
+            response.addHeader(CasTimingRecorder.HEADER, value);
+            response.setHeader(TIMING_ALLOW_ORIGIN, "*");
+        }
+    }
+
+    /**
+     * WebFlux variant of {@link #writeTo(HttpServletResponse, CasTimingRecorder)}.
+     */
+    public void writeTo(ServerHttpResponse response, CasTimingRecorder recorder) {
+        if (recorder == null) {
+            return;
+        }
+        String value = recorder.toHeaderValue();
+        if (!value.isEmpty()) {
+            response.getHeaders().add(CasTimingRecorder.HEADER, value);
+            response.getHeaders().set(TIMING_ALLOW_ORIGIN, "*");
+        }
+    }
+
+    private CasTimingRecorder sample(Function<String, Object> getAttribute, BiConsumer<String, Object> setAttribute) {
+        Object decision = getAttribute.apply(RECORDER_ATTRIBUTE);
+        if (decision == null) {
+            CasTimingRecorder recorder = sample();
+            decision = recorder != null ? recorder : Boolean.FALSE;
+            setAttribute.accept(RECORDER_ATTRIBUTE, decision);
+        }
+        return decision instanceof CasTimingRecorder recorder ? recorder : null;
+    }
+}
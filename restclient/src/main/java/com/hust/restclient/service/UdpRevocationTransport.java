@@ -0,0 +1,100 @@
+package com.hust.restclient.service;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocation batches as UDP datagrams, one per peer. A batch is a single small datagram, so there is
+ * no connection state and a logout reaches the other instances in one network hop.
+ */
+@Slf4j
+public class UdpRevocationTransport implements CasRevocationTransport {
+
+    /** Room for a full batch; larger datagrams are dropped */
+    static final int MAX_DATAGRAM_BYTES = 8192;
+
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private Thread receiverThread;
+
+    public UdpRevocationTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers) throws SocketException {
+        this.socket = new DatagramSocket(bindAddress);
+        this.peers = List.copyOf(peers);
+    }
+
+    /**
+     * @param peers host:port of the other instances, comma separated
+     */
+    public static List<InetSocketAddress> parsePeers(String peers) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        if (peers == null) {
+            return addresses;
+        }
+        for (String peer : peers.split(",")) {
+            String trimmed = peer.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalStateException("CAS revocation peer must be host:port, got " + trimmed);
+            }
+            addresses.add(new InetSocketAddress(trimmed.substring(0, colon),
+                Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        return addresses;
+    }
+
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        receiverThread = Thread.ofPlatform().name("cas-revocation-receiver").daemon(true).start(() -> {
+            byte[] buffer = new byte[MAX_DATAGRAM_BYTES];
+            while (!socket.isClosed()) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    socket.receive(packet);
+                    receiver.accept(Arrays.copyOfRange(packet.getData(), packet.getOffset(),
+                        packet.getOffset() + packet.getLength()));
+                } catch (IOException e) {
+                    if (!socket.isClosed()) {
+                        log.warn("Receiving a revocation batch failed: {}", e.getMessage());
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Dropping a malformed revocation batch from {}: {}", packet.getSocketAddress(), e.getMessage());
+                }
+            }
+        });
+        log.info("Revocation transport listening on UDP {}, {} peer(s)", socket.getLocalSocketAddress(), peers.size());
+    }
+
+    @Override
+    public void send(byte[] batch) throws IOException {
+        if (batch.length > MAX_DATAGRAM_BYTES) {
+            throw new IOException("Revocation batch of " + batch.length + " bytes exceeds one datagram");
+        }
+        for (InetSocketAddress peer : peers) {
+            socket.send(new DatagramPacket(batch, batch.length, peer));
+        }
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.hust.restclient;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end load test: boots the whole application against {@link FakeCasServer} and drives
+ * logins, session-cookie calls, CASTGC-only calls and logouts from concurrent virtual users.
+ * Fails when latency percentiles or the error rate break the SLO.
+ *
+ * Tagged "load", so {@code mvn test} leaves it out and {@code mvn verify} only runs a reduced pass
+ * (4 users x 5 cycles); run it at full size with the load-test profile and tune it with system properties, e.g.
+ * {@code ./mvnw test -pl restclient -am -Pload-test -Dloadtest.concurrency=64 -Dloadtest.iterations=200}:
+ * <ul>
+ *   <li>loadtest.concurrency - virtual users (default 16)</li>
+ *   <li>loadtest.iterations - login/use/logout cycles per virtual user (default 20)</li>
+ *   <li>loadtest.session-calls - session-cookie calls per cycle (default 5)</li>
+ *   <li>loadtest.login-strategy - cas.login.strategy under test (default THREE_LEG)</li>
+ *   <li>loadtest.cas-latency-ms - simulated CAS round trip (default 2)</li>
+ *   <li>loadtest.slo.p99-ms / loadtest.slo.p999-ms - latency SLO per operation (default 1000 / 2500)</li>
+ *   <li>loadtest.slo.max-error-rate - tolerated failed request ratio (default 0.001)</li>
+ * </ul>
+ * Add {@code -Dspring.profiles.active=reactive} to load the WebFlux stack instead of the servlet one.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "cas.session.revalidation.enabled=false",
+    "logging.level.com.hust.restclient=WARN",
+    "logging.level.com.hust.restclient.CasLoadTest=INFO",
+    "logging.level.org.springframework.security=WARN"
+})
+class CasLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 20);
+    private static final int SESSION_CALLS = Integer.getInteger("loadtest.session-calls", 5);
+    private static final long P99_SLO_MILLIS = Long.getLong("loadtest.slo.p99-ms", 1000);
+    private static final long P999_SLO_MILLIS = Long.getLong("loadtest.slo.p999-ms", 2500);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.slo.max-error-rate", "0.001"));
+
+    private static final FakeCasServer FAKE_CAS = FakeCasServer.start(Long.getLong("loadtest.cas-latency-ms", 2));
+
+    enum Operation { LOGIN, SESSION_CALL, CASTGC_CALL, LOGOUT }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    @DynamicPropertySource
+    static void casProperties(DynamicPropertyRegistry registry) {
+        registry.add("cas.server.url", FAKE_CAS::baseUrl);
+        registry.add("cas.login.strategy", () -> System.getProperty("loadtest.login-strategy", "THREE_LEG"));
+    }
+
+    @AfterAll
+    static void stopFakeCas() {
+        FAKE_CAS.stop();
+    }
+
+    @Test
+    void mixedTrafficMeetsLatencyAndErrorSlo() throws Exception {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyRecorder());
+        }
+
+        // Warm up JIT, connection pools and Tomcat threads before measuring
+        runVirtualUser(0, 2);
+        latencies.values().forEach(LatencyRecorder::reset);
+        requests.set(0);
+        errors.set(0);
+
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newFixedThreadPool(CONCURRENCY)) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int user = 0; user < CONCURRENCY; user++) {
+                int userId = user;
+                running.add(users.submit(() -> {
+                    runVirtualUser(userId, ITERATIONS);
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        double errorRate = (double) errors.get() / Math.max(1, requests.get());
+        log.info("Load test: {} users x {} cycles, {} requests in {} s = {} req/s, error rate {}",
+            CONCURRENCY, ITERATIONS, requests.get(), String.format("%.2f", elapsedSeconds),
+            Math.round(requests.get() / elapsedSeconds), String.format("%.4f", errorRate));
+
+        List<String> breaches = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = latencies.get(operation);
+            long p50 = recorder.percentileMillis(0.50);
+            long p99 = recorder.percentileMillis(0.99);
+            long p999 = recorder.percentileMillis(0.999);
+            log.info("  {} n={} p50={}ms p99={}ms p999={}ms", operation, recorder.count(), p50, p99, p999);
+            if (p99 > P99_SLO_MILLIS) {
+                breaches.add(operation + " p99 " + p99 + "ms > " + P99_SLO_MILLIS + "ms");
+            }
+            if (p999 > P999_SLO_MILLIS) {
+                breaches.add(operation + " p999 " + p999 + "ms > " + P999_SLO_MILLIS + "ms");
+            }
+        }
+        if (errorRate > MAX_ERROR_RATE) {
+            breaches.add("error rate " + errorRate + " > " + MAX_ERROR_RATE);
+        }
+
+        assertTrue(breaches.isEmpty(), "SLO breached: " + breaches);
+    }
+
+    private void runVirtualUser(int userId, int iterations) throws InterruptedException {
+        // Every fourth virtual user logs in as the shared "admin" account
+        String username = userId % 4 == 0 ? "admin" : "user" + userId;
+        for (int i = 0; i < iterations; i++) {
+            HttpResponse<String> login = send(Operation.LOGIN, HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"username\":\"" + username + "\",\"password\":\"" + FakeCasServer.PASSWORD + "\"}")));
+            if (login == null) {
+                continue;
+            }
+            String sessionId = cookie(login, "JSESSIONID");
+            String castgc = cookie(login, "CASTGC");
+
+            for (int call = 0; call < SESSION_CALLS; call++) {
+                send(Operation.SESSION_CALL, HttpRequest.newBuilder(uri("/api/user/profile"))
+                    .header("Cookie", "JSESSIONID=" + sessionId)
+                    .GET());
+            }
+
+            send(Operation.CASTGC_CALL, HttpRequest.newBuilder(uri("/api/user/profile"))
+                .header("Cookie", "CASTGC=" + castgc)
+                .GET());
+
+            send(Operation.LOGOUT, HttpRequest.newBuilder(uri("/api/auth/logout"))
+                .header("Cookie", "JSESSIONID=" + sessionId)
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        }
+    }
+
+    /**
+     * @return the response on HTTP 200, null (and an error counted) otherwise
+     */
+    private HttpResponse<String> send(Operation operation, HttpRequest.Builder request) throws InterruptedException {
+        requests.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            latencies.get(operation).record(System.nanoTime() - start);
+            if (response.statusCode() == 200) {
+                return response;
+            }
+        } catch (IOException e) {
+            latencies.get(operation).record(System.nanoTime() - start);
+        }
+        errors.incrementAndGet();
+        return null;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    private static String cookie(HttpResponse<?> response, String name) {
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            String pair = header.split(";", 2)[0];
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return "";
+    }
+
+    private static final class LatencyRecorder {
+
+        private long[] samples = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        synchronized void reset() {
+            size = 0;
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized long percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+            return Duration.ofNanos(sorted[Math.max(0, index)]).toMillis();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.hust.restclient;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * The "reactive" profile end to end against {@link FakeCasServer}: WebFlux on Netty, WebSession login,
+ * role rules, CASTGC-only authentication and logout with TGT revocation.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "cas.session.revalidation.enabled=false"
+})
+@ActiveProfiles("reactive")
+class ReactiveProfileTest {
+
+    private static final FakeCasServer FAKE_CAS = FakeCasServer.start(0);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void casProperties(DynamicPropertyRegistry registry) {
+        registry.add("cas.server.url", FAKE_CAS::baseUrl);
+    }
+
+    @AfterAll
+    static void stopFakeCas() {
+        FAKE_CAS.stop();
+    }
+
+    @Test
+    void sessionLoginRolesCastgcAndLogout() {
+        MultiValueMap<String, ResponseCookie> cookies = login("user1");
+        String sessionId = cookies.getFirst("JSESSIONID").getValue();
+        String castgc = cookies.getFirst("CASTGC").getValue();
+
+        webTestClient.get().uri("/api/user/profile").cookie("JSESSIONID", sessionId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.username").isEqualTo("user1");
+        webTestClient.get().uri("/api/admin/users").cookie("JSESSIONID", sessionId)
+            .exchange()
+            .expectStatus().isForbidden();
+        webTestClient.get().uri("/api/user/dashboard").cookie("CASTGC", castgc)
+            .exchange()
+            .expectStatus().isOk();
+
+        webTestClient.post().uri("/api/auth/logout").cookie("JSESSIONID", sessionId)
+            .exchange()
+            .expectStatus().isOk();
+        webTestClient.get().uri("/api/user/profile").cookie("JSESSIONID", sessionId)
+            .exchange()
+            .expectStatus().isUnauthorized()
+            .expectBody().jsonPath("$.error").isEqualTo("Authentication required");
+        // Logout revoked the TGT, which CAS would still accept
+        webTestClient.get().uri("/api/user/profile").cookie("CASTGC", castgc)
+            .exchange()
+            .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void adminReachesAdminEndpoints() {
+        String sessionId = login("admin1").getFirst("JSESSIONID").getValue();
+
+        webTestClient.get().uri("/api/admin/sessions").cookie("JSESSIONID", sessionId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.sessions.authenticatedSessions").isNumber();
+    }
+
+    private MultiValueMap<String, ResponseCookie> login(String username) {
+        MultiValueMap<String, ResponseCookie> cookies = webTestClient.post().uri("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"username\":\"" + username + "\",\"password\":\"" + FakeCasServer.PASSWORD + "\"}")
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(String.class)
+            .getResponseCookies();
+        assertNotNull(cookies.getFirst("JSESSIONID"));
+        assertNotNull(cookies.getFirst("CASTGC"));
+        return cookies;
+    }
+}
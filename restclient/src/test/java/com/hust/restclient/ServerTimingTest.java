@@ -0,0 +1,86 @@
+package com.hust.restclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Every sampled servlet request carries exactly one Server-Timing header, also when both the auth filter
+ * and the controller time it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "cas.session.revalidation.enabled=false",
+    "cas.server-timing.enabled=true",
+    "cas.server-timing.sample-rate=1.0"
+})
+class ServerTimingTest {
+
+    private static final FakeCasServer FAKE_CAS = FakeCasServer.start(0);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void casProperties(DynamicPropertyRegistry registry) {
+        registry.add("cas.server.url", FAKE_CAS::baseUrl);
+    }
+
+    @AfterAll
+    static void stopFakeCas() {
+        FAKE_CAS.stop();
+    }
+
+    @Test
+    void filterAndControllerShareOneHeader() {
+        EntityExchangeResult<byte[]> login = webTestClient.post().uri("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"username\":\"user1\",\"password\":\"" + FakeCasServer.PASSWORD + "\"}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult();
+        assertEquals(1, serverTimings(login).size());
+
+        MultiValueMap<String, ResponseCookie> cookies = login.getResponseCookies();
+        assertNotNull(cookies.getFirst("JSESSIONID"));
+        String sessionId = cookies.getFirst("JSESSIONID").getValue();
+        String castgc = cookies.getFirst("CASTGC").getValue();
+
+        EntityExchangeResult<byte[]> authen = webTestClient.post().uri("/api/auth/authen")
+            .cookie("JSESSIONID", sessionId)
+            .cookie("CASTGC", castgc)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult();
+        List<String> authenTimings = serverTimings(authen);
+        assertEquals(1, authenTimings.size(), authenTimings.toString());
+        // The filter's session lookup and the controller's CAS legs end up in the same header
+        assertTrue(authenTimings.get(0).contains("session;"), authenTimings.get(0));
+        assertTrue(authenTimings.get(0).contains("cas-validate;"), authenTimings.get(0));
+
+        EntityExchangeResult<byte[]> profile = webTestClient.get().uri("/api/user/profile")
+            .cookie("JSESSIONID", sessionId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().returnResult();
+        assertEquals(1, serverTimings(profile).size());
+    }
+
+    private static List<String> serverTimings(EntityExchangeResult<?> result) {
+        List<String> values = result.getResponseHeaders().get("Server-Timing");
+        return values != null ? values : List.of();
+    }
+}
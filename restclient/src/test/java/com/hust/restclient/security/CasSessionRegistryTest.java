@@ -0,0 +1,94 @@
+package com.hust.restclient.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import com.hust.restclient.config.CasConfig;
+
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionEvent;
+
+class CasSessionRegistryTest {
+
+    @Test
+    void perUserCapIsOffByDefault() {
+        CasSessionRegistry registry = new CasSessionRegistry(new CasConfig());
+
+        MockHttpSession first = login(registry, "admin", "TGT-1");
+        login(registry, "admin", "TGT-2");
+        login(registry, "admin", "TGT-3");
+
+        assertFalse(first.isInvalid());
+        assertEquals(3, registry.snapshot().get("authenticatedSessions"));
+    }
+
+    @Test
+    void perUserCapEvictsOldestSessionOfThatUser() {
+        CasConfig config = new CasConfig();
+        config.setSessionMaxPerUser(2);
+        CasSessionRegistry registry = new CasSessionRegistry(config);
+
+        MockHttpSession oldest = login(registry, "admin", "TGT-1");
+        MockHttpSession second = login(registry, "admin", "TGT-2");
+        MockHttpSession other = login(registry, "user1", "TGT-3");
+        MockHttpSession newest = login(registry, "admin", "TGT-4");
+
+        assertTrue(oldest.isInvalid());
+        assertFalse(second.isInvalid());
+        assertFalse(other.isInvalid());
+        assertFalse(newest.isInvalid());
+        assertEquals(1L, registry.snapshot().get("perUserEvictions"));
+    }
+
+    @Test
+    void memoryLimitEvictsLeastRecentlyUsedSession() throws InterruptedException {
+        CasConfig config = new CasConfig();
+        CasSessionRegistry probe = new CasSessionRegistry(config);
+        login(probe, "user1", "TGT-0");
+        long sessionBytes = (Long) probe.snapshot().get("estimatedBytes");
+        // Room for two sessions
+        config.setSessionMaxMemoryBytes(sessionBytes * 2 + sessionBytes / 2);
+        CasSessionRegistry registry = new CasSessionRegistry(config);
+
+        MockHttpSession first = login(registry, "user1", "TGT-1");
+        Thread.sleep(2);
+        MockHttpSession second = login(registry, "user2", "TGT-2");
+        Thread.sleep(2);
+        registry.touch(first.getId());
+        Thread.sleep(2);
+        MockHttpSession third = login(registry, "user3", "TGT-3");
+
+        assertFalse(first.isInvalid());
+        assertTrue(second.isInvalid());
+        assertFalse(third.isInvalid());
+        assertEquals(1L, registry.snapshot().get("memoryEvictions"));
+        assertEquals(sessionBytes * 2, registry.snapshot().get("estimatedBytes"));
+    }
+
+    @Test
+    void invalidateTgtEndsEverySessionOfTheTgt() {
+        CasSessionRegistry registry = new CasSessionRegistry(new CasConfig());
+
+        MockHttpSession loginSession = login(registry, "admin", "TGT-1");
+        MockHttpSession castgcSession = login(registry, "admin", "TGT-1");
+        MockHttpSession otherClient = login(registry, "admin", "TGT-2");
+
+        assertEquals(2, registry.invalidateTgt("TGT-1"));
+        assertTrue(loginSession.isInvalid());
+        assertTrue(castgcSession.isInvalid());
+        assertFalse(otherClient.isInvalid());
+    }
+
+    private static MockHttpSession login(CasSessionRegistry registry, String username, String tgt) {
+        MockHttpSession session = new MockHttpSession();
+        registry.sessionCreated(new HttpSessionEvent(session));
+        CasPrincipal principal = new CasPrincipal(username, "USER", tgt, "ST-1", "default", null);
+        session.setAttribute(CasSessionRegistry.PRINCIPAL_ATTRIBUTE, principal);
+        registry.attributeAdded(new HttpSessionBindingEvent(session, CasSessionRegistry.PRINCIPAL_ATTRIBUTE, principal));
+        return session;
+    }
+}
@@ -0,0 +1,166 @@
+package com.hust.restclient.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import com.hust.restclient.FakeCasServer;
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.core.CasClient;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+import com.hust.restclient.service.CasRestClient;
+import com.hust.restclient.service.CasSessionRevalidator;
+import com.hust.restclient.service.CasTenant;
+import com.hust.restclient.service.CasTenantRegistry;
+
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionEvent;
+
+/**
+ * Background revalidation against the fake CAS server, over a few tenants (one of them unreachable).
+ */
+class CasSessionRevalidatorTest {
+
+    private static final String UNREACHABLE_CAS = "http://127.0.0.1:1/cas/";
+
+    private final FakeCasServer fakeCas = FakeCasServer.start(20);
+    private final CasConfig config = config();
+    private final CasSessionRegistry sessionRegistry = new CasSessionRegistry(config);
+    private final CasTenantRegistry tenantRegistry = mock(CasTenantRegistry.class);
+    private final CasTenant defaultTenant = tenant(CasConfig.DEFAULT_TENANT_ID, fakeCas.baseUrl(), 8);
+    private final CasTenant otherTenant = tenant("other", fakeCas.baseUrl(), 1);
+    private final CasTenant downTenant = tenant("down", UNREACHABLE_CAS, 8);
+    private final CasSessionRevalidator revalidator = new CasSessionRevalidator(config, tenantRegistry, sessionRegistry);
+
+    CasSessionRevalidatorTest() {
+        when(tenantRegistry.defaultTenant()).thenReturn(defaultTenant);
+        when(tenantRegistry.get(defaultTenant.id())).thenReturn(defaultTenant);
+        when(tenantRegistry.get(otherTenant.id())).thenReturn(otherTenant);
+        when(tenantRegistry.get(downTenant.id())).thenReturn(downTenant);
+        revalidator.start();
+    }
+
+    @AfterEach
+    void stop() {
+        revalidator.stop();
+        defaultTenant.client().close();
+        otherTenant.client().close();
+        downTenant.client().close();
+        fakeCas.stop();
+    }
+
+    @Test
+    void destroyedTgtEvictsItsSessionsAndLiveTgtKeepsThem() {
+        String liveTgt = CasClient.tgtOf(defaultTenant.client()
+            .performCasLogin("alice", FakeCasServer.PASSWORD).getCastgcCookie());
+        MockHttpSession live = login("alice", liveTgt, defaultTenant);
+        MockHttpSession destroyed = login("bob", "TGT-destroyed-1", defaultTenant);
+        MockHttpSession destroyedToo = login("bob", "TGT-destroyed-1", defaultTenant);
+
+        assertEquals(2, revalidator.revalidateAll());
+        assertFalse(live.isInvalid());
+        assertTrue(destroyed.isInvalid());
+        assertTrue(destroyedToo.isInvalid());
+    }
+
+    @Test
+    void unknownTgtStatusKeepsTheSessions() {
+        // CAS unreachable: the TGT may well be alive
+        MockHttpSession session = login("alice", "TGT-1", downTenant);
+
+        assertEquals(0, revalidator.revalidateAll());
+        assertFalse(session.isInvalid());
+    }
+
+    @Test
+    void runIsBoundedByTheCheckerPool() {
+        List<MockHttpSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sessions.add(login("user" + i, "TGT-destroyed-" + i, defaultTenant));
+        }
+
+        assertEquals(6, revalidator.revalidateAll());
+        assertTrue(sessions.stream().allMatch(MockHttpSession::isInvalid));
+        assertTrue(fakeCas.maxConcurrentRequests() <= config.getRevalidationMaxConcurrency(),
+            "concurrent TGT checks: " + fakeCas.maxConcurrentRequests());
+    }
+
+    @Test
+    void fullBulkheadOfOneTenantDoesNotAbortTheRun() throws Exception {
+        MockHttpSession busy = login("alice", "TGT-destroyed-1", otherTenant);
+        MockHttpSession healthy = login("bob", "TGT-destroyed-2", defaultTenant);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = holdOnlyPermit(otherTenant, release);
+        try {
+            assertEquals(1, revalidator.revalidateAll());
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        // Not checked this run, so kept until the next one
+        assertFalse(busy.isInvalid());
+        assertTrue(healthy.isInvalid());
+    }
+
+    private static CasTenant tenant(String id, String serverUrl, int maxConcurrency) {
+        CasConfig tenantConfig = config();
+        tenantConfig.setTenantId(id);
+        tenantConfig.setServerUrl(serverUrl);
+        tenantConfig.setMaxConcurrency(maxConcurrency);
+        return new CasTenant(id, null, new CasRestClient(tenantConfig, null, new ProxyGrantingTicketStorage()));
+    }
+
+    private MockHttpSession login(String username, String tgt, CasTenant tenant) {
+        MockHttpSession session = new MockHttpSession();
+        sessionRegistry.sessionCreated(new HttpSessionEvent(session));
+        CasPrincipal principal = new CasPrincipal(username, "USER", tgt, "ST-1", tenant.id(), null);
+        session.setAttribute(CasSessionRegistry.PRINCIPAL_ATTRIBUTE, principal);
+        sessionRegistry.attributeAdded(
+            new HttpSessionBindingEvent(session, CasSessionRegistry.PRINCIPAL_ATTRIBUTE, principal));
+        return session;
+    }
+
+    /**
+     * Keep the tenant's single bulkhead permit busy until released.
+     */
+    private static Thread holdOnlyPermit(CasTenant tenant, CountDownLatch release) throws InterruptedException {
+        Thread holder = Thread.ofPlatform().start(() -> {
+            try {
+                tenant.client().getBulkhead().call(() -> release.await(5, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (tenant.client().getBulkhead().saturation() < 1.0) {
+            Thread.sleep(1);
+        }
+        return holder;
+    }
+
+    private static CasConfig config() {
+        CasConfig config = new CasConfig();
+        config.setClientServiceUrl("http://localhost:8081");
+        config.setConnectTimeoutMillis(1000);
+        config.setReadTimeoutMillis(1000);
+        config.setMaxConcurrency(8);
+        config.setBulkheadMaxWaitMillis(50);
+        config.setHealthWindowSeconds(10);
+        config.setRevalidationEnabled(true);
+        config.setRevalidationIntervalSeconds(3600);
+        config.setRevalidationBatchSize(10);
+        config.setRevalidationMaxConcurrency(2);
+        return config;
+    }
+}
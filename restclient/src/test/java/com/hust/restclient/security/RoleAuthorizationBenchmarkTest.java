@@ -0,0 +1,113 @@
+package com.hust.restclient.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import com.hust.restclient.controller.AdminController;
+import com.hust.restclient.controller.UserController;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the role-mask @PreAuthorize check with Spring's SpEL one on the real controller methods:
+ * both must reach the same decisions. The timing comparison is tagged "benchmark" and left out of the
+ * default build; it logs ns per check, e.g.
+ * {@code ./mvnw test -pl restclient -am -Pbenchmark -Dbenchmark.iterations=10000000}.
+ */
+@Slf4j
+class RoleAuthorizationBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 1_000_000);
+
+    private final RoleRegistry roleRegistry = new RoleRegistry();
+
+    @Test
+    void parsesRoleExpressions() {
+        assertArrayEquals(new String[] {"ADMIN"}, PreAuthorizeRoleAuthorizationManager.parseRoles("hasRole('ADMIN')"));
+        assertArrayEquals(new String[] {"USER", "ADMIN"},
+            PreAuthorizeRoleAuthorizationManager.parseRoles("hasAnyRole('USER', 'ADMIN')"));
+        assertNull(PreAuthorizeRoleAuthorizationManager.parseRoles("hasRole('ADMIN') and isAuthenticated()"));
+        assertNull(PreAuthorizeRoleAuthorizationManager.parseRoles("hasAuthority('SCOPE_read')"));
+    }
+
+    @Test
+    void maskCheckMatchesSpel() throws Exception {
+        MethodInvocation adminCall = invocation(AdminController.class, "getAllUsers");
+        MethodInvocation userCall = invocation(UserController.class, "getUserProfile");
+
+        AuthorizationManager<MethodInvocation> spel = new PreAuthorizeAuthorizationManager();
+        AuthorizationManager<MethodInvocation> mask = maskManager();
+
+        for (String role : List.of("ADMIN", "USER", "GUEST")) {
+            Supplier<Authentication> spelAuth = springToken(role);
+            Supplier<Authentication> maskAuth = casToken(role);
+            for (MethodInvocation call : List.of(adminCall, userCall)) {
+                assertEquals(spel.authorize(spelAuth, call).isGranted(), mask.authorize(maskAuth, call).isGranted(),
+                    role + " on " + call.getMethod().getName());
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void maskCheckCostComparedToSpel() throws Exception {
+        MethodInvocation userCall = invocation(UserController.class, "getUserProfile");
+
+        double spelNanos = nanosPerCheck(new PreAuthorizeAuthorizationManager(), springToken("USER"), userCall);
+        double maskNanos = nanosPerCheck(maskManager(), casToken("USER"), userCall);
+        log.info("@PreAuthorize check: SpEL {} ns, role mask {} ns ({} iterations)",
+            String.format("%.1f", spelNanos), String.format("%.1f", maskNanos), ITERATIONS);
+    }
+
+    private AuthorizationManager<MethodInvocation> maskManager() {
+        return new PreAuthorizeRoleAuthorizationManager(roleRegistry, new StaticApplicationContext());
+    }
+
+    private static double nanosPerCheck(AuthorizationManager<MethodInvocation> manager,
+                                        Supplier<Authentication> authentication, MethodInvocation call) {
+        int granted = 0;
+        // Warm up so both paths are JIT-compiled before timing
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            granted += manager.authorize(authentication, call).isGranted() ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            granted += manager.authorize(authentication, call).isGranted() ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(ITERATIONS + ITERATIONS / 10, granted);
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private Supplier<Authentication> casToken(String role) {
+        Authentication token = new CasAuthenticationToken("alice", roleRegistry.maskOf(role),
+            roleRegistry.authoritiesOf(role));
+        return () -> token;
+    }
+
+    private static Supplier<Authentication> springToken(String role) {
+        Authentication token = UsernamePasswordAuthenticationToken.authenticated("alice", null,
+            List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        return () -> token;
+    }
+
+    private static MethodInvocation invocation(Class<?> controller, String methodName) throws Exception {
+        return new SimpleMethodInvocation(mock(controller), controller.getMethod(methodName, Authentication.class));
+    }
+}
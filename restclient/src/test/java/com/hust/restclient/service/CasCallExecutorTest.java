@@ -0,0 +1,97 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.hust.restclient.config.CasConfig;
+
+class CasCallExecutorTest {
+
+    private final CasCallExecutor executor = new CasCallExecutor(config());
+    private final CasTenant slowTenant = new CasTenant("slow", null, null);
+    private final CasTenant healthyTenant = new CasTenant("healthy", null, null);
+
+    @AfterEach
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Test
+    void resultAfterTimeoutGoesToLateResultHandler() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> late = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(1);
+
+        CompletableFuture<String> caller = executor.submit(slowTenant, () -> {
+            await(release);
+            return "TGT-1-late";
+        }, result -> {
+            late.set(result);
+            handled.countDown();
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        release.countDown();
+        handled.await(1, TimeUnit.SECONDS);
+        assertEquals("TGT-1-late", late.get());
+    }
+
+    @Test
+    void resultInTimeGoesToCallerOnly() throws Exception {
+        AtomicReference<String> late = new AtomicReference<>();
+
+        assertEquals("TGT-2-ok", executor.submit(healthyTenant, () -> "TGT-2-ok", late::set).get(1, TimeUnit.SECONDS));
+        assertNull(late.get());
+    }
+
+    @Test
+    void slowTenantDoesNotStarveHealthyTenant() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Both threads busy and the queue full: the slow tenant is saturated
+            for (int i = 0; i < 4; i++) {
+                executor.submit(slowTenant, () -> {
+                    await(release);
+                    return "late";
+                });
+            }
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> executor.submit(slowTenant, () -> "rejected").get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+
+            assertEquals("ok", executor.submit(healthyTenant, () -> "ok").get(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static CasConfig config() {
+        CasConfig config = new CasConfig();
+        config.setAsyncPoolSize(2);
+        config.setAsyncQueueCapacity(2);
+        config.setAsyncTimeoutMillis(50);
+        return config;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
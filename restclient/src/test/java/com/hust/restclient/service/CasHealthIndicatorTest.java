@@ -0,0 +1,113 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+
+class CasHealthIndicatorTest {
+
+    private final CasConfig config = config();
+    private final CasRestClient client = new CasRestClient(config, null, new ProxyGrantingTicketStorage());
+    private final CasTenantRegistry tenantRegistry = mock(CasTenantRegistry.class);
+    private final CasCallExecutor executor = new CasCallExecutor(config);
+    private final CasHealthIndicator indicator = new CasHealthIndicator(config, tenantRegistry, executor);
+
+    CasHealthIndicatorTest() {
+        when(tenantRegistry.all()).thenReturn(List.of(new CasTenant(config.getTenantId(), null, client)));
+    }
+
+    @AfterEach
+    void stop() {
+        executor.shutdown();
+        client.close();
+    }
+
+    @Test
+    void emptyWindowIsUp() {
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void fewerCallsThanMinCallsSayNothing() throws Exception {
+        calls(2, 503, 0);
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void errorRateDegradesThenTakesOutOfService() throws Exception {
+        calls(9, 200, 0);
+        calls(1, 503, 0);
+        // 10% failed
+        assertEquals(CasHealthIndicator.DEGRADED, indicator.health().getStatus());
+
+        calls(4, 503, 0);
+        // 5 of 14 failed
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+
+    @Test
+    void rejectedCredentialsAreNotErrors() throws Exception {
+        calls(10, 401, 0);
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void latencyDegradesThenTakesOutOfService() throws Exception {
+        calls(4, 200, 30);
+        assertEquals(CasHealthIndicator.DEGRADED, indicator.health().getStatus());
+
+        calls(4, 200, 150);
+        // Mean of 30 and 150 ms
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+
+    /**
+     * Push CAS exchanges answering {@code status} after {@code latencyMillis} through the tenant's bulkhead.
+     */
+    private void calls(int count, int status, long latencyMillis) throws Exception {
+        HttpResponse<?> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        for (int i = 0; i < count; i++) {
+            client.getBulkhead().call(() -> {
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+                return response;
+            });
+        }
+    }
+
+    private static CasConfig config() {
+        CasConfig config = new CasConfig();
+        config.setServerUrl("http://127.0.0.1:1/cas/");
+        config.setClientServiceUrl("http://localhost:8081");
+        config.setConnectTimeoutMillis(1000);
+        config.setReadTimeoutMillis(1000);
+        config.setMaxConcurrency(4);
+        config.setBulkheadMaxWaitMillis(100);
+        config.setAsyncPoolSize(2);
+        config.setAsyncQueueCapacity(2);
+        config.setAsyncTimeoutMillis(1000);
+        config.setHealthWindowSeconds(30);
+        config.setHealthMinCalls(4);
+        config.setHealthDegradedLatencyMillis(20);
+        config.setHealthOutOfServiceLatencyMillis(80);
+        config.setHealthDegradedErrorRate(0.05);
+        config.setHealthOutOfServiceErrorRate(0.25);
+        config.setHealthDegradedSaturation(0.75);
+        config.setHealthOutOfServiceSaturation(0.95);
+        return config;
+    }
+}
@@ -0,0 +1,117 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.hust.restclient.FakeCasServer;
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.core.CasClient;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+import com.hust.restclient.dto.CasLoginResult;
+import com.hust.restclient.dto.CasUserDetail;
+
+class CasLoginCacheTest {
+
+    private static final int HASH_ITERATIONS = 1000;
+
+    private final CasUserDetail alice = CasUserDetail.success("alice", "USER");
+
+    @Test
+    void sameCredentialsHitTheCachedLogin() {
+        CasLoginCache cache = new CasLoginCache(10, HASH_ITERATIONS, 10);
+        cache.put("alice", "secret", "TGT-1", alice);
+
+        CasLoginCache.CachedLogin cached = cache.get("alice", "secret");
+        assertNotNull(cached);
+        assertEquals("TGT-1", cached.tgt());
+        assertEquals(alice, cached.userDetail());
+        assertNull(cache.get("bob", "secret"));
+    }
+
+    @Test
+    void wrongPasswordMissesWithoutDroppingTheEntry() {
+        CasLoginCache cache = new CasLoginCache(10, HASH_ITERATIONS, 10);
+        cache.put("alice", "secret", "TGT-1", alice);
+
+        assertNull(cache.get("alice", "guess"));
+        assertNotNull(cache.get("alice", "secret"));
+    }
+
+    @Test
+    void entryExpiresAfterTtl() throws InterruptedException {
+        CasLoginCache cache = new CasLoginCache(1, HASH_ITERATIONS, 10);
+        cache.put("alice", "secret", "TGT-1", alice);
+
+        Thread.sleep(1100);
+        assertNull(cache.get("alice", "secret"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void fullCacheDoesNotTakeNewUsersButRefreshesKnownOnes() {
+        CasLoginCache cache = new CasLoginCache(10, HASH_ITERATIONS, 2);
+        cache.put("alice", "secret", "TGT-1", alice);
+        cache.put("bob", "secret", "TGT-2", CasUserDetail.success("bob", "USER"));
+        cache.put("carol", "secret", "TGT-3", CasUserDetail.success("carol", "USER"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("carol", "secret"));
+
+        cache.put("alice", "secret", "TGT-4", alice);
+        assertEquals("TGT-4", cache.get("alice", "secret").tgt());
+    }
+
+    @Test
+    void fullCacheMakesRoomByDroppingExpiredEntries() throws InterruptedException {
+        CasLoginCache cache = new CasLoginCache(1, HASH_ITERATIONS, 1);
+        cache.put("alice", "secret", "TGT-1", alice);
+
+        Thread.sleep(1100);
+        cache.put("bob", "secret", "TGT-2", CasUserDetail.success("bob", "USER"));
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("bob", "secret"));
+    }
+
+    @Test
+    void logoutDropsTheCachedLogin() {
+        FakeCasServer fakeCas = FakeCasServer.start(0);
+        CasRestClient client = new CasRestClient(config(fakeCas), null, new ProxyGrantingTicketStorage());
+        try {
+            String firstTgt = tgtOf(client.performCasLogin("alice", FakeCasServer.PASSWORD));
+            // Served from the cache: same TGT, new service ticket
+            assertEquals(firstTgt, tgtOf(client.performCasLogin("alice", FakeCasServer.PASSWORD)));
+
+            client.invalidateCachedLogin("alice");
+            assertNotEquals(firstTgt, tgtOf(client.performCasLogin("alice", FakeCasServer.PASSWORD)));
+        } finally {
+            client.close();
+            fakeCas.stop();
+        }
+    }
+
+    private static String tgtOf(CasLoginResult login) {
+        assertTrue(login.isSuccess(), login.getMessage());
+        return CasClient.tgtOf(login.getCastgcCookie());
+    }
+
+    private static CasConfig config(FakeCasServer fakeCas) {
+        CasConfig config = new CasConfig();
+        config.setServerUrl(fakeCas.baseUrl());
+        config.setClientServiceUrl("http://localhost:8081");
+        config.setConnectTimeoutMillis(1000);
+        config.setReadTimeoutMillis(1000);
+        config.setMaxConcurrency(4);
+        config.setBulkheadMaxWaitMillis(100);
+        config.setHealthWindowSeconds(10);
+        config.setLoginCacheEnabled(true);
+        config.setLoginCacheTtlSeconds(10);
+        config.setLoginCacheHashIterations(HASH_ITERATIONS);
+        config.setLoginCacheMaxEntries(10);
+        return config;
+    }
+}
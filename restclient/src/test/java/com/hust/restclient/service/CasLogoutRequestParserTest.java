@@ -0,0 +1,58 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CasLogoutRequestParserTest {
+
+    private final CasLogoutRequestParser parser = new CasLogoutRequestParser();
+
+    @Test
+    void extractsSessionIndex() {
+        String request = """
+            <samlp:LogoutRequest xmlns:samlp="urn:oasis:names:tc:SAML:2.0:protocol"
+                xmlns:saml="urn:oasis:names:tc:SAML:2.0:assertion" ID="LR-1" Version="2.0" IssueInstant="2025-01-01T00:00:00Z">
+              <saml:NameID>@NOT_USED@</saml:NameID>
+              <samlp:SessionIndex> ST-1-abc </samlp:SessionIndex>
+            </samlp:LogoutRequest>""";
+
+        assertEquals("ST-1-abc", parser.extractSessionIndex(request));
+    }
+
+    @Test
+    void missingOrEmptySessionIndexIsNull() {
+        assertNull(parser.extractSessionIndex("""
+            <samlp:LogoutRequest xmlns:samlp="urn:oasis:names:tc:SAML:2.0:protocol">
+              <saml:NameID xmlns:saml="urn:oasis:names:tc:SAML:2.0:assertion">@NOT_USED@</saml:NameID>
+            </samlp:LogoutRequest>"""));
+        assertNull(parser.extractSessionIndex(
+            "<samlp:LogoutRequest xmlns:samlp=\"urn:oasis:names:tc:SAML:2.0:protocol\">"
+                + "<samlp:SessionIndex>  </samlp:SessionIndex></samlp:LogoutRequest>"));
+        assertNull(parser.extractSessionIndex("<LogoutRequest><SessionIndex>"));
+        assertNull(parser.extractSessionIndex(""));
+        assertNull(parser.extractSessionIndex(null));
+    }
+
+    @Test
+    void rejectsDoctypeAndExternalEntities(@TempDir Path dir) throws Exception {
+        Path secret = Files.writeString(dir.resolve("secret.txt"), "ST-leaked");
+        String externalEntity = "<?xml version=\"1.0\"?>"
+            + "<!DOCTYPE LogoutRequest [<!ENTITY xxe SYSTEM \"" + secret.toUri() + "\">]>"
+            + "<LogoutRequest><SessionIndex>&xxe;</SessionIndex></LogoutRequest>";
+        String internalEntity = "<?xml version=\"1.0\"?>"
+            + "<!DOCTYPE LogoutRequest [<!ENTITY t \"ST-1-abc\">]>"
+            + "<LogoutRequest><SessionIndex>&t;</SessionIndex></LogoutRequest>";
+        String plainDoctype = "<!DOCTYPE LogoutRequest>"
+            + "<LogoutRequest><SessionIndex>ST-1-abc</SessionIndex></LogoutRequest>";
+
+        assertNull(parser.extractSessionIndex(externalEntity));
+        assertNull(parser.extractSessionIndex(internalEntity));
+        assertNull(parser.extractSessionIndex(plainDoctype));
+    }
+}
@@ -0,0 +1,151 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.hust.restclient.config.CasConfig;
+
+/**
+ * Revocation buses talking UDP over loopback.
+ */
+class CasRevocationBusTest {
+
+    private final CasTenantRegistry tenantRegistry = mock(CasTenantRegistry.class);
+    private final List<CasRevocationBus> buses = new ArrayList<>();
+    private final List<UdpRevocationTransport> transports = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        buses.forEach(CasRevocationBus::stop);
+        transports.forEach(UdpRevocationTransport::close);
+    }
+
+    @Test
+    void logoutReachesPeerWithinMillisecondsAndIsSentOnce() throws Exception {
+        CasRevocationBus receiver = bus("secret");
+        CasRevocationBus sender = bus("secret", transports.get(0).getLocalPort());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            sender.revoke("default", "TGT-1-a", "alice");
+        }
+        sender.revoke("default", "TGT-2-b", "bob");
+        sender.revoke("default", "TGT-3-c", "carol");
+        assertTrue(sender.isRevoked("TGT-1-a"), "revoked locally right away");
+
+        awaitTrue(() -> receiver.isRevoked("TGT-1-a") && receiver.isRevoked("TGT-2-b")
+            && receiver.isRevoked("TGT-3-c"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // Batch delay is 2 ms; the bound leaves room for a loaded build machine
+        assertTrue(elapsedMillis < 1000, "revocations took " + elapsedMillis + " ms");
+
+        assertFalse(receiver.isRevoked("TGT-4-d"));
+        // Resent copies of the batch arrive later and are not counted again
+        Thread.sleep(100);
+        assertEquals(3L, receiver.snapshot().get("receivedRevocations"));
+        assertTrue((Long) sender.snapshot().get("sentBatches") <= 3L);
+    }
+
+    @Test
+    void batchWithWrongSecretIsRejected() throws Exception {
+        CasRevocationBus receiver = bus("secret");
+        CasRevocationBus forger = bus("guessed", transports.get(0).getLocalPort());
+
+        forger.revoke("default", "TGT-1-a", "alice");
+
+        awaitTrue(() -> (Long) receiver.snapshot().get("rejectedBatches") == CasRevocationBus.SENDS_PER_BATCH);
+        assertFalse(receiver.isRevoked("TGT-1-a"));
+    }
+
+    @Test
+    void replayedBatchIsRejectedOnceOlderThanTheTtl() throws Exception {
+        CapturingTransport outbound = new CapturingTransport();
+        CasRevocationBus sender = new CasRevocationBus(config("secret", 1), tenantRegistry, Optional.of(outbound));
+        sender.start();
+        buses.add(sender);
+        CapturingTransport inbound = new CapturingTransport();
+        CasRevocationBus receiver = new CasRevocationBus(config("secret", 1), tenantRegistry, Optional.of(inbound));
+        receiver.start();
+        buses.add(receiver);
+
+        sender.revoke("default", "TGT-1-a", "alice");
+        awaitTrue(() -> !outbound.sent.isEmpty());
+        byte[] batch = outbound.sent.get(0);
+        inbound.receiver.accept(batch);
+        assertTrue(receiver.isRevoked("TGT-1-a"));
+
+        // The revocation is forgotten after the TTL; replaying the batch must not bring it back
+        Thread.sleep(1100);
+        inbound.receiver.accept(batch);
+        assertFalse(receiver.isRevoked("TGT-1-a"));
+        assertEquals(1L, receiver.snapshot().get("rejectedBatches"));
+    }
+
+    private CasRevocationBus bus(String secret, int... peerPorts) throws Exception {
+        CasConfig config = config(secret, 60);
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (int port : peerPorts) {
+            peers.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }
+        UdpRevocationTransport transport =
+            new UdpRevocationTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), peers);
+        transports.add(transport);
+        CasRevocationBus bus = new CasRevocationBus(config, tenantRegistry, Optional.of(transport));
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+
+    private static CasConfig config(String secret, long ttlSeconds) {
+        CasConfig config = new CasConfig();
+        config.setRevocationSharedSecret(secret);
+        config.setRevocationBatchDelayMillis(2);
+        config.setRevocationTtlSeconds(ttlSeconds);
+        return config;
+    }
+
+    /**
+     * Keeps what the bus sends and lets the test deliver batches by hand.
+     */
+    private static final class CapturingTransport implements CasRevocationTransport {
+
+        final List<byte[]> sent = new CopyOnWriteArrayList<>();
+        volatile Consumer<byte[]> receiver;
+
+        @Override
+        public void start(Consumer<byte[]> receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void send(byte[] batch) {
+            sent.add(batch);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(1);
+        }
+    }
+}
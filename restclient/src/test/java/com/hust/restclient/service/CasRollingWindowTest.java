@@ -0,0 +1,50 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class CasRollingWindowTest {
+
+    @Test
+    void emptyWindowHasNoCallsAndNoErrors() {
+        CasRollingWindow.Stats stats = new CasRollingWindow(10).stats();
+
+        assertEquals(0, stats.calls());
+        assertEquals(0.0, stats.errorRate());
+        assertEquals(0.0, stats.meanLatencyMs());
+    }
+
+    @Test
+    void countsCallsFailuresAndRejections() {
+        CasRollingWindow window = new CasRollingWindow(10);
+        window.recordCall(10_000_000, false);
+        window.recordCall(30_000_000, true);
+        window.recordRejection();
+
+        CasRollingWindow.Stats stats = window.stats();
+        assertEquals(2, stats.calls());
+        assertEquals(1, stats.failures());
+        assertEquals(1, stats.rejections());
+        assertEquals(20.0, stats.meanLatencyMs(), 0.001);
+        assertEquals(30.0, stats.maxLatencyMs(), 0.001);
+        assertEquals(2.0 / 3, stats.errorRate(), 0.001);
+    }
+
+    @Test
+    void callsOlderThanTheWindowAreEvicted() throws InterruptedException {
+        CasRollingWindow window = new CasRollingWindow(1);
+        window.recordCall(10_000_000, true);
+        window.recordRejection();
+
+        Thread.sleep(1100);
+        CasRollingWindow.Stats stats = window.stats();
+        assertEquals(0, stats.calls());
+        assertEquals(0, stats.rejections());
+
+        // The bucket is reused for the current second
+        window.recordCall(10_000_000, false);
+        assertEquals(1, window.stats().calls());
+        assertEquals(0, window.stats().failures());
+    }
+}
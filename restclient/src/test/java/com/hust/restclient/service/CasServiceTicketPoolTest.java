@@ -0,0 +1,53 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CasServiceTicketPoolTest {
+
+    private final AtomicInteger minted = new AtomicInteger();
+
+    @Test
+    void ticketIsHandedOutOnce() {
+        CasServiceTicketPool pool = new CasServiceTicketPool(1, 5000, 10);
+        pool.refill("TGT-1", this::mint);
+
+        assertEquals("ST-1", pool.take("TGT-1"));
+        assertNull(pool.take("TGT-1"));
+        assertNull(pool.take("TGT-2"));
+        assertEquals(1, pool.hits());
+        assertEquals(2, pool.misses());
+    }
+
+    @Test
+    void ticketExpiresAfterMaxAge() throws InterruptedException {
+        CasServiceTicketPool pool = new CasServiceTicketPool(1, 50, 10);
+        pool.refill("TGT-1", this::mint);
+
+        Thread.sleep(100);
+        assertNull(pool.take("TGT-1"));
+    }
+
+    @Test
+    void refillCompletingAfterInvalidateIsDiscarded() {
+        CasServiceTicketPool pool = new CasServiceTicketPool(1, 5000, 10);
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+        pool.refill("TGT-1", () -> inFlight);
+
+        // Logout while CAS is still minting the ticket
+        pool.invalidate("TGT-1");
+        inFlight.complete("ST-late");
+
+        assertNull(pool.take("TGT-1"));
+        assertEquals(0, pool.size());
+    }
+
+    private CompletableFuture<String> mint() {
+        return CompletableFuture.completedFuture("ST-" + minted.incrementAndGet());
+    }
+}
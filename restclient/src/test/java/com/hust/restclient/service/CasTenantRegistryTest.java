@@ -0,0 +1,151 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.hust.restclient.FakeCasServer;
+import com.hust.restclient.config.CasConfig;
+import com.hust.restclient.config.CasTenantProperties;
+import com.hust.restclient.core.ProxyGrantingTicketStorage;
+import com.hust.restclient.security.TenantResolutionFilter;
+
+/**
+ * Routing of requests to tenants, and one tenant's CAS calls not affecting another's.
+ */
+class CasTenantRegistryTest {
+
+    private final FakeCasServer fakeCas = FakeCasServer.start(0);
+    private final CasConfig config = config(fakeCas);
+    private final CasRestClient defaultClient = new CasRestClient(config, null, new ProxyGrantingTicketStorage());
+    private final CasTenantRegistry registry = new CasTenantRegistry(config, defaultClient,
+        tenants(fakeCas, "hr.example.edu"), null, new ProxyGrantingTicketStorage());
+    private final TenantResolutionFilter filter = new TenantResolutionFilter(registry);
+
+    @AfterEach
+    void stop() {
+        registry.close();
+        defaultClient.close();
+        fakeCas.stop();
+    }
+
+    @Test
+    void hostRoutesToItsTenant() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServerName("HR.example.edu");
+
+        assertEquals("hr", filter(request).id());
+    }
+
+    @Test
+    void pathPrefixRoutesToItsTenantWithThePrefixStripped() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/hr/api/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals("hr", tenantOf(request).id());
+        assertEquals("/api/auth/login", response.getForwardedUrl());
+    }
+
+    @Test
+    void unknownHostAndPathGetTheDefaultTenant() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/hrx/api/auth/login");
+        request.setServerName("other.example.edu");
+
+        assertSame(registry.defaultTenant(), filter(request));
+        assertNull(registry.get("unknown"));
+    }
+
+    @Test
+    void hostMappedTwiceIsRefused() {
+        CasTenantProperties properties = tenants(fakeCas, "hr.example.edu");
+        CasTenantProperties.Tenant copy = new CasTenantProperties.Tenant();
+        copy.setServerUrl(fakeCas.baseUrl());
+        copy.setClientServiceUrl("https://finance.example.edu");
+        copy.setHosts(List.of("hr.example.edu"));
+        properties.getTenants().put("finance", copy);
+
+        assertThrows(IllegalStateException.class, () -> new CasTenantRegistry(config, defaultClient, properties,
+            null, new ProxyGrantingTicketStorage()));
+    }
+
+    @Test
+    void fullBulkheadOfOneTenantLeavesTheOtherAlone() throws Exception {
+        CasTenant hr = registry.get("hr");
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofPlatform().start(() -> {
+            try {
+                hr.client().getBulkhead().call(() -> release.await(5, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            while (hr.client().getBulkhead().saturation() < 1.0) {
+                Thread.sleep(1);
+            }
+
+            assertThrows(RejectedExecutionException.class,
+                () -> hr.client().performCasLogin("alice", FakeCasServer.PASSWORD));
+            assertTrue(registry.defaultTenant().client().performCasLogin("bob", FakeCasServer.PASSWORD).isSuccess());
+            assertEquals(0.0, registry.defaultTenant().client().getBulkhead().saturation());
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private CasTenant filter(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertSame(request, chain.getRequest());
+        return tenantOf(request);
+    }
+
+    private static CasTenant tenantOf(MockHttpServletRequest request) {
+        return (CasTenant) request.getAttribute(CasTenantRegistry.TENANT_ATTRIBUTE);
+    }
+
+    private static CasTenantProperties tenants(FakeCasServer fakeCas, String hrHost) {
+        CasTenantProperties.Tenant hr = new CasTenantProperties.Tenant();
+        hr.setServerUrl(fakeCas.baseUrl());
+        hr.setClientServiceUrl("https://hr.example.edu");
+        hr.setHosts(List.of(hrHost));
+        hr.setPathPrefix("/hr");
+        hr.setMaxConcurrency(1);
+        CasTenantProperties properties = new CasTenantProperties();
+        properties.getTenants().put("hr", hr);
+        return properties;
+    }
+
+    private static CasConfig config(FakeCasServer fakeCas) {
+        CasConfig config = new CasConfig();
+        config.setServerUrl(fakeCas.baseUrl());
+        config.setClientServiceUrl("http://localhost:8081");
+        config.setConnectTimeoutMillis(1000);
+        config.setReadTimeoutMillis(1000);
+        config.setMaxConcurrency(4);
+        config.setBulkheadMaxWaitMillis(50);
+        config.setAsyncPoolSize(2);
+        config.setAsyncQueueCapacity(2);
+        config.setAsyncTimeoutMillis(1000);
+        config.setHealthWindowSeconds(10);
+        config.setRevocationTtlSeconds(60);
+        config.setProxyMaxTargets(4);
+        return config;
+    }
+}
@@ -0,0 +1,41 @@
+package com.hust.restclient.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class CasTimingRecorderTest {
+
+    @Test
+    void parallelLegsAddUpWithoutLosingUpdates() throws InterruptedException {
+        CasTimingRecorder recorder = new CasTimingRecorder();
+        int threads = 8;
+        int addsPerThread = 100_000;
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < addsPerThread; j++) {
+                    recorder.add(CasTimingRecorder.Leg.PROXY, 1_000);
+                }
+            }));
+        }
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // 8 * 100000 * 1 µs = 800 ms
+        assertEquals("cas-proxy;dur=800.000", recorder.toHeaderValue());
+    }
+}
@@ -1,38 +0,0 @@
-package com.hust.restclient.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-
-import com.hust.restclient.security.SimpleAuthFilter;
-
-@Configuration
-@EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true)
-public class SecurityConfig {
-    
-    private final SimpleAuthFilter simpleAuthFilter;
-
-    public SecurityConfig(SimpleAuthFilter simpleAuthFilter) {
-        this.simpleAuthFilter = simpleAuthFilter;
-    }
-    
-    @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        http
-            .csrf(csrf -> csrf.disable())
-            .addFilterBefore(simpleAuthFilter, UsernamePasswordAuthenticationFilter.class)
-            .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/api/auth/login", "/api/auth/logout", "/public/**").permitAll()
-                .requestMatchers("/api/admin/**").hasRole("ADMIN")
-                .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
-                .anyRequest().authenticated()
-            );
-        
-        return http.build();
-    }
-} 
\ No newline at end of file
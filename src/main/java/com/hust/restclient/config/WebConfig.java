@@ -1,8 +0,0 @@
-package com.hust.restclient.config;
-
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class WebConfig {
-    // RestTemplate is now configured in SslConfig
-} 
\ No newline at end of file